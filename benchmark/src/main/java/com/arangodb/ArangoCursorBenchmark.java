@@ -0,0 +1,101 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.entity.CursorEntity;
+
+/**
+ * Measures iterating a cursor batch which was already received, i.e. deserializing the documents of a query result.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArangoCursorBenchmark {
+
+	@Param({ "100", "1000" })
+	private int batchSize;
+
+	private ArangoDBAsync arangoDB;
+	private ArangoDatabaseAsync db;
+	private CursorEntity cursorEntity;
+
+	@Setup
+	public void setup() {
+		arangoDB = new ArangoDBAsync.Builder().build();
+		db = arangoDB.db();
+		final List<Map<String, Object>> result = new ArrayList<>();
+		for (int i = 0; i < batchSize; i++) {
+			final Map<String, Object> document = new HashMap<>();
+			document.put("_key", String.valueOf(i));
+			document.put("_id", "benchmark/" + i);
+			document.put("_rev", "_Vb1W4n2---");
+			document.put("value", i);
+			document.put("text", "benchmark document number " + i);
+			result.add(document);
+		}
+		final Map<String, Object> cursor = new HashMap<>();
+		cursor.put("hasMore", false);
+		cursor.put("count", batchSize);
+		cursor.put("result", result);
+		cursorEntity = arangoDB.util().deserialize(arangoDB.util().serialize(cursor), CursorEntity.class);
+	}
+
+	@TearDown
+	public void teardown() {
+		arangoDB.shutdown();
+	}
+
+	@Benchmark
+	public void iterate(final Blackhole blackhole) {
+		final ArangoCursorAsync<BaseDocument> cursor = db.createCursor(cursorEntity, BaseDocument.class);
+		while (cursor.hasNext()) {
+			blackhole.consume(cursor.next());
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arangodb.entity.ArangoDBVersion;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.entity.DocumentCreateEntity;
+import com.arangodb.stub.VstStubServer;
+
+/**
+ * Measures complete round trips through {@link ArangoDBAsync} and its executor, by default against an in-process
+ * {@link VstStubServer}. With <code>-p target=server</code> an ArangoDB server configured like the integration tests
+ * (<code>arangodb.properties</code>, default 127.0.0.1:8529) is used instead.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArangoDBAsyncBenchmark {
+
+	private static final String DB_NAME = "benchmark_db";
+	private static final String COLLECTION_NAME = "benchmark_collection";
+	private static final String KEY = "benchmark";
+
+	@Param({ "stub" })
+	private String target;
+
+	private VstStubServer server;
+	private ArangoDBAsync arangoDB;
+	private ArangoCollectionAsync collection;
+
+	@Setup
+	public void setup() throws Exception {
+		if ("stub".equals(target)) {
+			server = new VstStubServer.Builder().build();
+			arangoDB = new ArangoDBAsync.Builder().clearHosts().host(server.getHost(), server.getPort()).build();
+		} else {
+			arangoDB = new ArangoDBAsync.Builder().build();
+		}
+		if (arangoDB.db(DB_NAME).exists().get()) {
+			arangoDB.db(DB_NAME).drop().get();
+		}
+		arangoDB.createDatabase(DB_NAME).get();
+		arangoDB.db(DB_NAME).createCollection(COLLECTION_NAME).get();
+		collection = arangoDB.db(DB_NAME).collection(COLLECTION_NAME);
+		final BaseDocument document = new BaseDocument(KEY);
+		document.addAttribute("value", "benchmark");
+		collection.insertDocument(document).get();
+	}
+
+	@TearDown
+	public void teardown() throws Exception {
+		arangoDB.db(DB_NAME).drop().get();
+		arangoDB.shutdown();
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	@Benchmark
+	public ArangoDBVersion getVersion() throws Exception {
+		return arangoDB.getVersion().get();
+	}
+
+	@Benchmark
+	public BaseDocument getDocument() throws Exception {
+		return collection.getDocument(KEY, BaseDocument.class).get();
+	}
+
+	@Benchmark
+	public DocumentCreateEntity<BaseDocument> insertDocument() throws Exception {
+		final BaseDocument document = new BaseDocument();
+		document.addAttribute("value", "benchmark");
+		return collection.insertDocument(document).get();
+	}
+
+}
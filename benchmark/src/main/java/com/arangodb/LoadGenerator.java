@@ -0,0 +1,404 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.model.AqlQueryOptions;
+import com.arangodb.stub.VstStubServer;
+
+/**
+ * Drives {@link ArangoDBAsync} with a configurable mix of reads, writes, queries and imports and reports HDR latency
+ * histograms and throughput per operation, e.g. to size <code>maxConnections</code> and <code>chunksize</code>.
+ * 
+ * <p>
+ * In open loop mode (<code>--rate</code>) operations are started at a fixed rate regardless of completed ones. Their
+ * latency is measured from the time they were supposed to start, so stalls of the generator or the driver are not
+ * hidden (coordinated omission correction). In closed loop mode (<code>--concurrency</code>) a fixed number of
+ * operations is kept in flight.
+ * </p>
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar com.arangodb.LoadGenerator --rate 20000 --duration 60 --mix read=80,write=20
+ * </pre>
+ * 
+ * Options:
+ * <ul>
+ * <li><code>--host host:port</code> host to connect to, repeatable, default from <code>arangodb.properties</code></li>
+ * <li><code>--stub</code> run against an in-process {@link VstStubServer}</li>
+ * <li><code>--rate n</code> operations per second (open loop)</li>
+ * <li><code>--concurrency n</code> operations in flight (closed loop), default 64</li>
+ * <li><code>--duration s</code> / <code>--warmup s</code> measurement and warmup time in seconds, default 30 / 5</li>
+ * <li><code>--mix read=n,write=n,query=n,import=n</code> relative weights, default read=100</li>
+ * <li><code>--max-connections n</code> / <code>--chunksize n</code> driver settings</li>
+ * <li><code>--documents n</code> documents loaded for reads and queries, default 10000</li>
+ * <li><code>--document-size n</code> payload bytes per written document, default 100</li>
+ * <li><code>--import-batch n</code> documents per import, default 1000</li>
+ * <li><code>--histograms prefix</code> write the percentile distributions to <code>prefix-operation.hgrm</code></li>
+ * </ul>
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class LoadGenerator {
+
+	private static final String DB_NAME = "load_generator_db";
+	private static final String COLLECTION_NAME = "load_generator";
+	private static final String QUERY = "FOR d IN @@collection LIMIT 10 RETURN d";
+	private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+	private static final int MAX_OUTSTANDING = 100000;
+
+	enum Operation {
+		READ, WRITE, QUERY, IMPORT
+	}
+
+	static class Options {
+		private final List<String> hosts = new ArrayList<>();
+		private boolean stub;
+		private Integer rate;
+		private int concurrency = 64;
+		private int duration = 30;
+		private int warmup = 5;
+		private final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		private Integer maxConnections;
+		private Integer chunksize;
+		private int documents = 10000;
+		private int documentSize = 100;
+		private int importBatch = 1000;
+		private String histograms;
+
+		static Options parse(final String[] args) {
+			final Options options = new Options();
+			for (int i = 0; i < args.length; i++) {
+				final String arg = args[i];
+				switch (arg) {
+				case "--host":
+					options.hosts.add(args[++i]);
+					break;
+				case "--stub":
+					options.stub = true;
+					break;
+				case "--rate":
+					options.rate = Integer.valueOf(args[++i]);
+					break;
+				case "--concurrency":
+					options.concurrency = Integer.parseInt(args[++i]);
+					break;
+				case "--duration":
+					options.duration = Integer.parseInt(args[++i]);
+					break;
+				case "--warmup":
+					options.warmup = Integer.parseInt(args[++i]);
+					break;
+				case "--mix":
+					for (final String weight : args[++i].split(",")) {
+						final String[] split = weight.split("=");
+						options.mix.put(Operation.valueOf(split[0].trim().toUpperCase()),
+							Integer.valueOf(split[1].trim()));
+					}
+					break;
+				case "--max-connections":
+					options.maxConnections = Integer.valueOf(args[++i]);
+					break;
+				case "--chunksize":
+					options.chunksize = Integer.valueOf(args[++i]);
+					break;
+				case "--documents":
+					options.documents = Integer.parseInt(args[++i]);
+					break;
+				case "--document-size":
+					options.documentSize = Integer.parseInt(args[++i]);
+					break;
+				case "--import-batch":
+					options.importBatch = Integer.parseInt(args[++i]);
+					break;
+				case "--histograms":
+					options.histograms = args[++i];
+					break;
+				default:
+					throw new IllegalArgumentException(String.format("Unknown option %s", arg));
+				}
+			}
+			if (options.mix.isEmpty()) {
+				options.mix.put(Operation.READ, 100);
+			}
+			return options;
+		}
+	}
+
+	private final Options options;
+	private final ArangoDBAsync arangoDB;
+	private final ArangoCollectionAsync collection;
+	private final Operation[] operations;
+	private final int[] cumulativeWeights;
+	private final Map<Operation, Recorder> recorders;
+	private final Map<Operation, LongAdder> errors;
+	private final String payload;
+
+	LoadGenerator(final Options options, final ArangoDBAsync arangoDB) {
+		super();
+		this.options = options;
+		this.arangoDB = arangoDB;
+		collection = arangoDB.db(DB_NAME).collection(COLLECTION_NAME);
+		operations = options.mix.keySet().toArray(new Operation[0]);
+		cumulativeWeights = new int[operations.length];
+		int sum = 0;
+		for (int i = 0; i < operations.length; i++) {
+			sum += options.mix.get(operations[i]);
+			cumulativeWeights[i] = sum;
+		}
+		recorders = new EnumMap<>(Operation.class);
+		errors = new EnumMap<>(Operation.class);
+		for (final Operation operation : Operation.values()) {
+			recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+			errors.put(operation, new LongAdder());
+		}
+		payload = new String(new char[options.documentSize]).replace('\0', 'x');
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final Options options = Options.parse(args);
+		VstStubServer server = null;
+		final ArangoDBAsync.Builder builder = new ArangoDBAsync.Builder();
+		if (options.stub || !options.hosts.isEmpty()) {
+			builder.clearHosts();
+		}
+		if (options.maxConnections != null) {
+			builder.maxConnections(options.maxConnections);
+		}
+		if (options.chunksize != null) {
+			builder.chunksize(options.chunksize);
+		}
+		if (options.stub) {
+			server = new VstStubServer.Builder().query(QUERY, Collections.nCopies(10, new BaseDocument("0")))
+					.build();
+			builder.host(server.getHost(), server.getPort());
+		}
+		for (final String host : options.hosts) {
+			final String[] split = host.split(":");
+			builder.host(split[0], Integer.parseInt(split[1]));
+		}
+		final ArangoDBAsync arangoDB = builder.build();
+		try {
+			final LoadGenerator generator = new LoadGenerator(options, arangoDB);
+			generator.setup();
+			generator.run(TimeUnit.SECONDS.toNanos(options.warmup));
+			generator.reset();
+			final long start = System.nanoTime();
+			generator.run(TimeUnit.SECONDS.toNanos(options.duration));
+			generator.report(System.out, System.nanoTime() - start);
+			arangoDB.db(DB_NAME).drop().get();
+		} finally {
+			arangoDB.shutdown();
+			if (server != null) {
+				server.close();
+			}
+		}
+	}
+
+	void setup() throws Exception {
+		if (arangoDB.db(DB_NAME).exists().get()) {
+			arangoDB.db(DB_NAME).drop().get();
+		}
+		arangoDB.createDatabase(DB_NAME).get();
+		arangoDB.db(DB_NAME).createCollection(COLLECTION_NAME).get();
+		final List<BaseDocument> batch = new ArrayList<>();
+		for (int i = 0; i < options.documents; i++) {
+			batch.add(document(String.valueOf(i)));
+			if (batch.size() == options.importBatch || i == options.documents - 1) {
+				collection.importDocuments(batch).get();
+				batch.clear();
+			}
+		}
+	}
+
+	void run(final long durationNanos) throws InterruptedException {
+		if (options.rate != null) {
+			runOpenLoop(durationNanos);
+		} else {
+			runClosedLoop(durationNanos);
+		}
+	}
+
+	private void runOpenLoop(final long durationNanos) throws InterruptedException {
+		final long interval = TimeUnit.SECONDS.toNanos(1) / options.rate;
+		final long start = System.nanoTime();
+		final long end = start + durationNanos;
+		final Semaphore outstanding = new Semaphore(MAX_OUTSTANDING);
+		for (long i = 0;; i++) {
+			final long intended = start + i * interval;
+			if (intended >= end) {
+				break;
+			}
+			long now;
+			while ((now = System.nanoTime()) < intended) {
+				LockSupport.parkNanos(intended - now);
+			}
+			outstanding.acquire();
+			final Operation operation = nextOperation(ThreadLocalRandom.current());
+			execute(operation).whenComplete((r, e) -> {
+				record(operation, intended, e);
+				outstanding.release();
+			});
+		}
+		outstanding.acquire(MAX_OUTSTANDING);
+	}
+
+	private void runClosedLoop(final long durationNanos) throws InterruptedException {
+		final long end = System.nanoTime() + durationNanos;
+		final CountDownLatch done = new CountDownLatch(options.concurrency);
+		for (int i = 0; i < options.concurrency; i++) {
+			next(end, done);
+		}
+		done.await();
+	}
+
+	private void next(final long end, final CountDownLatch done) {
+		final long start = System.nanoTime();
+		if (start >= end) {
+			done.countDown();
+			return;
+		}
+		final Operation operation = nextOperation(ThreadLocalRandom.current());
+		execute(operation).whenComplete((r, e) -> {
+			record(operation, start, e);
+			next(end, done);
+		});
+	}
+
+	private Operation nextOperation(final Random random) {
+		final int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+		return operations[operations.length - 1];
+	}
+
+	private CompletableFuture<?> execute(final Operation operation) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		try {
+			switch (operation) {
+			case READ:
+				return collection.getDocument(String.valueOf(random.nextInt(options.documents)), BaseDocument.class);
+			case WRITE:
+				return collection.insertDocument(document(null));
+			case QUERY:
+				return arangoDB.db(DB_NAME).query(QUERY,
+					Collections.<String, Object> singletonMap("@collection", COLLECTION_NAME),
+					new AqlQueryOptions().batchSize(10), BaseDocument.class);
+			case IMPORT:
+				final Collection<BaseDocument> values = new ArrayList<>(options.importBatch);
+				for (int i = 0; i < options.importBatch; i++) {
+					values.add(document(null));
+				}
+				return collection.importDocuments(values);
+			default:
+				throw new IllegalArgumentException(operation.toString());
+			}
+		} catch (final ArangoDBException e) {
+			final CompletableFuture<?> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	private BaseDocument document(final String key) {
+		final BaseDocument document = key != null ? new BaseDocument(key) : new BaseDocument();
+		document.addAttribute("payload", payload);
+		return document;
+	}
+
+	private void record(final Operation operation, final long start, final Throwable error) {
+		recorders.get(operation).recordValue(Math.min(System.nanoTime() - start, HIGHEST_TRACKABLE_NANOS));
+		if (error != null) {
+			errors.get(operation).increment();
+		}
+	}
+
+	void reset() {
+		for (final Operation operation : Operation.values()) {
+			recorders.get(operation).reset();
+			errors.get(operation).reset();
+		}
+	}
+
+	void report(final PrintStream out, final long elapsedNanos) throws IOException {
+		final double seconds = elapsedNanos / 1e9;
+		final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+		out.println(String.format("%-8s %10s %12s %10s %10s %10s %10s %10s %8s", "op", "count", "ops/s", "p50 ms",
+			"p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+		for (final Operation operation : operations) {
+			final Histogram histogram = recorders.get(operation).getIntervalHistogram();
+			total.add(histogram);
+			print(out, operation.name().toLowerCase(), histogram, errors.get(operation).sum(), seconds);
+			if (options.histograms != null) {
+				try (PrintStream file = new PrintStream(
+						new FileOutputStream(options.histograms + "-" + operation.name().toLowerCase() + ".hgrm"))) {
+					histogram.outputPercentileDistribution(file, 1e6);
+				}
+			}
+		}
+		long totalErrors = 0;
+		for (final LongAdder error : errors.values()) {
+			totalErrors += error.sum();
+		}
+		print(out, "total", total, totalErrors, seconds);
+		out.println();
+		out.println("Latency distribution of all operations (ms):");
+		total.outputPercentileDistribution(out, 1e6);
+	}
+
+	private static void print(
+		final PrintStream out,
+		final String name,
+		final Histogram histogram,
+		final long errors,
+		final double seconds) {
+		out.println(String.format("%-8s %10d %12.1f %10.3f %10.3f %10.3f %10.3f %10.3f %8d", name,
+			histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+			histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+			histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+			histogram.getMaxValue() / 1e6, errors));
+	}
+
+}
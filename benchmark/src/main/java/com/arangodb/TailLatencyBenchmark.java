@@ -0,0 +1,135 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.stub.FaultProfile;
+import com.arangodb.stub.VstStubServer;
+
+/**
+ * Measures the latency distribution of {@link ArangoDBAsync} against a {@link VstStubServer} injecting the faults
+ * of a {@link FaultProfile}. The sample time mode reports p50, p99 and p99.9 per profile. Requests which do not
+ * complete within the request timeout (stalls) or fail (resets) are counted with the time until then.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TailLatencyBenchmark {
+
+	private static final String KEY = "benchmark";
+	private static final long REQUEST_TIMEOUT_MILLIS = 1000;
+
+	@Param({ "none", "exponential", "spikes", "partial", "stall", "reset", "slowReader" })
+	private String profile;
+
+	@Param({ "1" })
+	private int maxConnections;
+
+	private VstStubServer server;
+	private ArangoDBAsync arangoDB;
+	private ArangoCollectionAsync collection;
+
+	static FaultProfile profile(final String name) {
+		final FaultProfile.Builder builder = new FaultProfile.Builder();
+		switch (name) {
+		case "none":
+			break;
+		case "exponential":
+			builder.latency(FaultProfile.exponential(200, TimeUnit.MICROSECONDS));
+			break;
+		case "spikes":
+			builder.latency(FaultProfile.spikes(100, 50000, 0.001, TimeUnit.MICROSECONDS));
+			break;
+		case "partial":
+			builder.partialChunks(0.01, 5, TimeUnit.MILLISECONDS);
+			break;
+		case "stall":
+			builder.stall(0.0005);
+			break;
+		case "reset":
+			builder.reset(0.0005);
+			break;
+		case "slowReader":
+			builder.slowReader(10 * 1024 * 1024);
+			break;
+		default:
+			throw new IllegalArgumentException(String.format("Unknown fault profile %s", name));
+		}
+		return builder.build();
+	}
+
+	@Setup
+	public void setup() throws Exception {
+		server = new VstStubServer.Builder().faults(profile(profile)).build();
+		arangoDB = new ArangoDBAsync.Builder().clearHosts().host(server.getHost(), server.getPort())
+				.maxConnections(maxConnections).build();
+		collection = arangoDB.db().collection("benchmark");
+		// the faults hit the setup as well
+		while (!(getDocument() instanceof BaseDocument)) {
+			try {
+				collection.insertDocument(new BaseDocument(KEY)).get(REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (final ExecutionException | TimeoutException | ArangoDBException e) {
+			}
+		}
+	}
+
+	@TearDown
+	public void teardown() throws Exception {
+		arangoDB.shutdown();
+		server.close();
+	}
+
+	@Benchmark
+	public Object getDocument() throws InterruptedException {
+		try {
+			return collection.getDocument(KEY, BaseDocument.class).get(REQUEST_TIMEOUT_MILLIS,
+				TimeUnit.MILLISECONDS);
+		} catch (final ExecutionException | TimeoutException | ArangoDBException e) {
+			return e;
+		}
+	}
+
+}
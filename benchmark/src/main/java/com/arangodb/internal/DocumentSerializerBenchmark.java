@@ -0,0 +1,114 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arangodb.ArangoDBAsync;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.util.ArangoSerializer;
+import com.arangodb.velocypack.VPackSlice;
+
+/**
+ * Measures serializing the documents of a multi-document request with {@link DocumentSerializer}, sequentially and in
+ * parallel on a pool like the one set with {@link ArangoDBAsync.Builder#parallelSerializationPool(ForkJoinPool)}. The
+ * smallest batch size for which <code>parallel</code> is faster than <code>sequential</code> is the value to use for
+ * {@link ArangoDBAsync.Builder#parallelSerializationThreshold(Integer)}.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentSerializerBenchmark {
+
+	@Param({ "10", "100", "1000", "10000" })
+	private int documents;
+
+	@Param({ "2", "4" })
+	private int parallelism;
+
+	private ArangoDBAsync arangoDB;
+	private ArangoSerialization util;
+	private ArangoSerializer.Options options;
+	private List<Map<String, Object>> values;
+	private ForkJoinPool pool;
+	private DocumentSerializer sequentialSerializer;
+	private DocumentSerializer parallelSerializer;
+
+	@Setup
+	public void setup() {
+		arangoDB = new ArangoDBAsync.Builder().build();
+		util = arangoDB.util();
+		options = new ArangoSerializer.Options().serializeNullValues(false).stringAsJson(true);
+		pool = new ForkJoinPool(parallelism);
+		sequentialSerializer = new DocumentSerializer(null, pool);
+		parallelSerializer = new DocumentSerializer(1, pool);
+
+		values = new ArrayList<>();
+		for (int i = 0; i < documents; i++) {
+			final Map<String, Object> document = new HashMap<>();
+			document.put("_key", String.valueOf(i));
+			document.put("value", i);
+			document.put("text", "benchmark document number " + i);
+			values.add(document);
+		}
+	}
+
+	@TearDown
+	public void teardown() {
+		pool.shutdown();
+		arangoDB.shutdown();
+	}
+
+	@Benchmark
+	public List<VPackSlice> sequential() {
+		return sequentialSerializer.serialize(util, values, options);
+	}
+
+	@Benchmark
+	public List<VPackSlice> parallel() {
+		return parallelSerializer.serialize(util, values, options);
+	}
+
+}
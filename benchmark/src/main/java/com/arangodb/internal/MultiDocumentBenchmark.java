@@ -0,0 +1,111 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arangodb.ArangoCollectionAsync;
+import com.arangodb.ArangoDBAsync;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.entity.MultiDocumentEntity;
+import com.arangodb.internal.ArangoExecutor.ResponseDeserializer;
+import com.arangodb.model.DocumentReadOptions;
+import com.arangodb.velocystream.Response;
+
+/**
+ * Measures deserializing the response of a multi-document request, sequentially and with
+ * {@link MultiDocumentDeserializer}.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiDocumentBenchmark {
+
+	@Param({ "100", "10000" })
+	private int documents;
+
+	private ArangoDBAsync arangoDB;
+	private Response response;
+	private ResponseDeserializer<MultiDocumentEntity<BaseDocument>> deserializer;
+	private MultiDocumentDeserializer parallelDeserializer;
+
+	@Setup
+	public void setup() {
+		arangoDB = new ArangoDBAsync.Builder().build();
+		final ArangoCollectionAsync collection = arangoDB.db().collection("benchmark");
+		deserializer = collection.getDocumentsResponseDeserializer(BaseDocument.class, new DocumentReadOptions());
+		parallelDeserializer = new MultiDocumentDeserializer(1, ForkJoinPool.commonPool());
+
+		final List<Map<String, Object>> body = new ArrayList<>();
+		for (int i = 0; i < documents; i++) {
+			final Map<String, Object> document = new HashMap<>();
+			document.put("_key", String.valueOf(i));
+			document.put("_id", "benchmark/" + i);
+			document.put("_rev", "_Vb1W4n2---");
+			document.put("value", i);
+			document.put("text", "benchmark document number " + i);
+			body.add(document);
+		}
+		response = new Response();
+		response.setResponseCode(200);
+		response.setBody(arangoDB.util().serialize(body));
+	}
+
+	@TearDown
+	public void teardown() {
+		arangoDB.shutdown();
+	}
+
+	@Benchmark
+	public MultiDocumentEntity<BaseDocument> sequential() {
+		return deserializer.deserialize(response);
+	}
+
+	@Benchmark
+	public MultiDocumentEntity<BaseDocument> parallel() {
+		return parallelDeserializer.deserialize(response, (from, to) -> deserializer).join();
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arangodb.ArangoDBAsync;
+import com.arangodb.internal.CollectionCache;
+import com.arangodb.internal.DefaultHostHandler;
+import com.arangodb.internal.Host;
+import com.arangodb.internal.velocystream.internal.Chunk;
+import com.arangodb.internal.velocystream.internal.Message;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+
+/**
+ * Measures the protocol work done for every request without any network I/O: serializing a request into a message,
+ * splitting it into chunks and creating a response from a received message.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VstCommunicationBenchmark {
+
+	@Param({ "64", "4096", "65536", "1048576" })
+	private int bodySize;
+
+	private ArangoDBAsync arangoDB;
+	private VstCommunicationAsync communication;
+	private Request request;
+	private Message message;
+	private byte[] responseBuffer;
+
+	@Setup
+	public void setup() throws Exception {
+		arangoDB = new ArangoDBAsync.Builder().build();
+		final ArangoSerialization util = arangoDB.util();
+		communication = new VstCommunicationAsync.Builder(
+				new DefaultHostHandler(Collections.singletonList(new Host("127.0.0.1", 8529)))).build(util,
+					new CollectionCache());
+
+		final Map<String, Object> document = new HashMap<>();
+		document.put("_key", "key");
+		document.put("value", new String(new char[bodySize]).replace('\0', 'a'));
+		final VPackSlice body = util.serialize(document);
+
+		request = new Request("_system", RequestType.POST, "/_api/document/benchmark");
+		request.setBody(body);
+		message = communication.createMessage(request);
+
+		final VPackSlice head = util.serialize(Arrays.asList(1, 2, 200, Collections.emptyMap()));
+		responseBuffer = new byte[head.getByteSize() + body.getByteSize()];
+		System.arraycopy(head.getBuffer(), head.getStart(), responseBuffer, 0, head.getByteSize());
+		System.arraycopy(body.getBuffer(), body.getStart(), responseBuffer, head.getByteSize(), body.getByteSize());
+	}
+
+	@TearDown
+	public void teardown() {
+		arangoDB.shutdown();
+	}
+
+	@Benchmark
+	public Message createMessage() throws Exception {
+		return communication.createMessage(request);
+	}
+
+	@Benchmark
+	public Collection<Chunk> buildChunks() throws Exception {
+		return communication.buildChunks(message);
+	}
+
+	@Benchmark
+	public Response createResponse() throws Exception {
+		return communication.createResponse(new Message(message.getId(), responseBuffer));
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Blocking access to the asynchronous API of {@link ArangoDBAsync}, e.g.
+ * <code>ArangoBlocking.get(arangoDB.db("mydb").collection("c").getDocument(key, MyType.class))</code>. Waiting
+ * only parks the calling thread and holds no monitor, so it can be used from a large number of (virtual) threads
+ * concurrently.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public final class ArangoBlocking {
+
+	private ArangoBlocking() {
+		super();
+	}
+
+	/**
+	 * Waits for the given future to complete and returns its result.
+	 * 
+	 * @param future
+	 *            the result of an asynchronous operation
+	 * @return the result of the operation
+	 * @throws ArangoDBException
+	 *             if the operation failed or the calling thread was interrupted
+	 */
+	public static <T> T get(final CompletableFuture<T> future) throws ArangoDBException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ArangoDBException(e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof ArangoDBException) {
+				throw (ArangoDBException) cause;
+			}
+			throw new ArangoDBException(cause);
+		}
+	}
+
+}
@@ -20,15 +20,33 @@
 
 package com.arangodb;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import com.arangodb.entity.CollectionEntity;
 import com.arangodb.entity.CollectionPropertiesEntity;
 import com.arangodb.entity.CollectionRevisionEntity;
+import com.arangodb.entity.CursorEntity;
+import com.arangodb.entity.DocumentBulkEntity;
 import com.arangodb.entity.DocumentCreateEntity;
 import com.arangodb.entity.DocumentDeleteEntity;
+import com.arangodb.entity.DocumentExportEntity;
 import com.arangodb.entity.DocumentImportEntity;
 import com.arangodb.entity.DocumentUpdateEntity;
 import com.arangodb.entity.IndexEntity;
@@ -36,22 +54,33 @@ import com.arangodb.entity.MultiDocumentEntity;
 import com.arangodb.entity.Permissions;
 import com.arangodb.internal.ArangoExecutor.ResponseDeserializer;
 import com.arangodb.internal.ArangoExecutorAsync;
+import com.arangodb.internal.DocumentBulkWriter;
+import com.arangodb.internal.DocumentExporter;
+import com.arangodb.internal.DocumentSerializer;
 import com.arangodb.internal.InternalArangoCollection;
+import com.arangodb.internal.MultiDocumentSplitter;
 import com.arangodb.internal.velocystream.ConnectionAsync;
+import com.arangodb.model.AqlQueryOptions;
 import com.arangodb.model.CollectionPropertiesOptions;
+import com.arangodb.model.DocumentBulkOptions;
 import com.arangodb.model.DocumentCreateOptions;
 import com.arangodb.model.DocumentDeleteOptions;
 import com.arangodb.model.DocumentExistsOptions;
+import com.arangodb.model.DocumentExportOptions;
 import com.arangodb.model.DocumentImportOptions;
 import com.arangodb.model.DocumentReadOptions;
 import com.arangodb.model.DocumentReplaceOptions;
+import com.arangodb.model.DocumentScanOptions;
 import com.arangodb.model.DocumentUpdateOptions;
 import com.arangodb.model.FulltextIndexOptions;
 import com.arangodb.model.GeoIndexOptions;
 import com.arangodb.model.HashIndexOptions;
 import com.arangodb.model.PersistentIndexOptions;
 import com.arangodb.model.SkiplistIndexOptions;
+import com.arangodb.util.ArangoSerializer;
+import com.arangodb.velocypack.VPackSlice;
 import com.arangodb.velocypack.exception.VPackException;
+import com.arangodb.velocystream.Request;
 import com.arangodb.velocystream.Response;
 
 /**
@@ -61,10 +90,34 @@ import com.arangodb.velocystream.Response;
 public class ArangoCollectionAsync extends
 		InternalArangoCollection<ArangoDBAsync, ArangoDatabaseAsync, ArangoExecutorAsync, CompletableFuture<Response>, ConnectionAsync> {
 
+	private static final String EXPORT_QUERY = "FOR doc IN @@collection FILTER doc._key > @startAfter "
+			+ "SORT doc._key RETURN doc";
+	private static final int DEFAULT_EXPORT_BATCH_SIZE = 10000;
+	private static final String SAMPLE_QUERY = "FOR doc IN @@collection SORT RAND() LIMIT @count "
+			+ "SORT doc._key RETURN doc._key";
+	private static final int DEFAULT_SCAN_PARTITIONS = 4;
+	private static final int DEFAULT_SCAN_SAMPLES = 16;
+	private static final int DEFAULT_BULK_BATCH_SIZE = 1000;
+	private static final int DEFAULT_BULK_PENDING_BATCHES = 4;
+
 	protected ArangoCollectionAsync(final ArangoDatabaseAsync db, final String name) {
 		super(db, name);
 	}
 
+	/**
+	 * Returns a handler of this collection whose requests are sent on the connections of the given group, see
+	 * {@link ArangoDBAsync.Builder#connectionGroup(String, com.arangodb.model.ConnectionGroupOptions)}.
+	 * 
+	 * @param name
+	 *            Name of the connection group
+	 * @return collection handler
+	 * @throws ArangoDBException
+	 *             if the group does not exist
+	 */
+	public ArangoCollectionAsync connectionGroup(final String name) throws ArangoDBException {
+		return new ArangoCollectionAsync(db().connectionGroup(name), name());
+	}
+
 	/**
 	 * Creates a new document from the given document, unless there is already a document with the _key given. If no
 	 * _key is given, a new unique _key is generated automatically.
@@ -110,9 +163,7 @@ public class ArangoCollectionAsync extends
 	 */
 	public <T> CompletableFuture<MultiDocumentEntity<DocumentCreateEntity<T>>> insertDocuments(
 		final Collection<T> values) {
-		final DocumentCreateOptions params = new DocumentCreateOptions();
-		return executor.execute(insertDocumentsRequest(values, params),
-			insertDocumentsResponseDeserializer(values, params));
+		return executeInsertDocuments(values, new DocumentCreateOptions());
 	}
 
 	/**
@@ -130,9 +181,36 @@ public class ArangoCollectionAsync extends
 	public <T> CompletableFuture<MultiDocumentEntity<DocumentCreateEntity<T>>> insertDocuments(
 		final Collection<T> values,
 		final DocumentCreateOptions options) {
-		final DocumentCreateOptions params = (options != null ? options : new DocumentCreateOptions());
-		return executor.execute(insertDocumentsRequest(values, params),
-			insertDocumentsResponseDeserializer(values, params));
+		return executeInsertDocuments(values, options != null ? options : new DocumentCreateOptions());
+	}
+
+	private <T> CompletableFuture<MultiDocumentEntity<DocumentCreateEntity<T>>> executeInsertDocuments(
+		final Collection<T> values,
+		final DocumentCreateOptions params) {
+		final Integer maxDocuments = executor.maxBatchDocuments();
+		final Integer maxBytes = executor.maxBatchBytes();
+		final DocumentSerializer serializer = executor.documentSerializer();
+		final List<T> documents = asList(values);
+		if (!MultiDocumentSplitter.isSplitRequired(documents.size(), maxDocuments, maxBytes)
+				&& !serializer.isParallel(documents.size())) {
+			return executor.executeMultiDocument(insertDocumentsRequest(documents, params),
+				(from, to) -> insertDocumentsResponseDeserializer(documents.subList(from, to), params));
+		}
+		final List<VPackSlice> slices = maxBytes != null || serializer.isParallel(documents.size())
+				? serializer.serialize(util(), documents,
+					new ArangoSerializer.Options().serializeNullValues(false).stringAsJson(true))
+				: Collections.<VPackSlice> emptyList();
+		final List<Integer> bounds = MultiDocumentSplitter.split(documents.size(),
+			i -> slices.get(i).getByteSize(), maxDocuments, maxBytes);
+		final List<CompletableFuture<MultiDocumentEntity<DocumentCreateEntity<T>>>> batches = new ArrayList<>();
+		for (int i = 1; i < bounds.size(); i++) {
+			final List<T> batch = documents.subList(bounds.get(i - 1), bounds.get(i));
+			final Request request = slices.isEmpty() ? insertDocumentsRequest(batch, params)
+					: insertDocumentsRequest(slices.subList(bounds.get(i - 1), bounds.get(i)), params);
+			batches.add(executor.executeMultiDocument(request,
+				(from, to) -> insertDocumentsResponseDeserializer(batch.subList(from, to), params)));
+		}
+		return MultiDocumentSplitter.merge(batches);
 	}
 
 	/**
@@ -192,6 +270,184 @@ public class ArangoCollectionAsync extends
 		return executor.execute(importDocumentsRequest(values, options), DocumentImportEntity.class);
 	}
 
+	/**
+	 * Exports all documents of the collection, ordered by _key, into the given channel. The documents are streamed
+	 * through a cursor and written as they are received from the server, without deserializing them into POJOs. The
+	 * channel is written on the executor set with {@link ArangoDBAsync.Builder#blockingExecutor(Executor)}, without
+	 * one on the thread receiving the batches. The channel is not closed by this method.
+	 * <p>
+	 * The whole export is a single query whose cursor is read batch by batch, so the collection is scanned once. The
+	 * order by _key is read from the primary index with the RocksDB storage engine. With MMFiles the primary index is
+	 * unsorted and the server sorts the whole collection before it returns the first batch, which takes memory in the
+	 * size of the collection. Large collections should therefore be exported from the RocksDB engine.
+	 * 
+	 * @param channel
+	 *            the channel the documents are written to
+	 * @param options
+	 *            Additional options, can be null
+	 * @return information about the export, including the _key of the last exported document. A failed export
+	 *         completes with a {@link DocumentExportException} holding the documents written so far.
+	 */
+	public CompletableFuture<DocumentExportEntity> exportDocuments(
+		final WritableByteChannel channel,
+		final DocumentExportOptions options) {
+		final DocumentExportOptions params = (options != null ? options : new DocumentExportOptions());
+		final Map<String, Object> bindVars = new HashMap<>();
+		bindVars.put("@collection", name());
+		bindVars.put("startAfter", params.getStartAfter() != null ? params.getStartAfter() : "");
+		final AqlQueryOptions queryOptions = new AqlQueryOptions()
+				.batchSize(params.getBatchSize() != null ? params.getBatchSize() : DEFAULT_EXPORT_BATCH_SIZE)
+				.ttl(params.getTtl());
+		final ArangoDatabaseAsync db = db();
+		return new DocumentExporter(util(), channel, params.getFormat(), db::nextCursorEntity, db::closeCursor,
+				executor.blockingExecutor()).export(db.cursorEntity(EXPORT_QUERY, bindVars, queryOptions));
+	}
+
+	/**
+	 * Exports all documents of the collection, ordered by _key, into the given file. If
+	 * {@link DocumentExportOptions#startAfter(String)} is set, the documents are appended to the file, otherwise an
+	 * existing file is overwritten.
+	 * 
+	 * @param file
+	 *            the file the documents are written to
+	 * @param options
+	 *            Additional options, can be null
+	 * @return information about the export, including the _key of the last exported document
+	 */
+	public CompletableFuture<DocumentExportEntity> exportDocuments(
+		final Path file,
+		final DocumentExportOptions options) {
+		final FileChannel channel;
+		try {
+			channel = options != null && options.getStartAfter() != null
+					? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.APPEND)
+					: FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING);
+		} catch (final IOException e) {
+			final CompletableFuture<DocumentExportEntity> result = new CompletableFuture<>();
+			result.completeExceptionally(new ArangoDBException(e));
+			return result;
+		}
+		return exportDocuments(channel, options).whenComplete((result, ex) -> {
+			try {
+				channel.close();
+			} catch (final IOException e) {
+				throw new ArangoDBException(e);
+			}
+		});
+	}
+
+	/**
+	 * Reads all documents of the collection with multiple cursors at the same time. The _key space of the collection is
+	 * split into ranges, either at the given boundaries or at boundaries found by sampling random keys, and every range
+	 * is read by its own cursor. All cursors are created concurrently. To spread them over multiple connections,
+	 * increase {@link ArangoDBAsync.Builder#maxConnections(Integer)}.
+	 * 
+	 * @param type
+	 *            The type of the documents (POJO class, VPackSlice or String for Json)
+	 * @param options
+	 *            Additional options, can be null
+	 * @return one cursor per key range, ordered by key range
+	 */
+	public <T> CompletableFuture<List<ArangoCursorAsync<T>>> scanDocuments(
+		final Class<T> type,
+		final DocumentScanOptions options) {
+		final DocumentScanOptions params = (options != null ? options : new DocumentScanOptions());
+		final CompletableFuture<List<String>> boundaries;
+		if (params.getBoundaries() != null) {
+			boundaries = CompletableFuture.completedFuture(new ArrayList<>(params.getBoundaries()));
+		} else {
+			boundaries = sampleBoundaries(
+				params.getPartitions() != null ? params.getPartitions() : DEFAULT_SCAN_PARTITIONS,
+				params.getSamples() != null ? params.getSamples() : DEFAULT_SCAN_SAMPLES);
+		}
+		return boundaries.thenCompose(b -> scanPartitions(b, type, params));
+	}
+
+	/**
+	 * Reads all documents of the collection with multiple cursors at the same time (see
+	 * {@link #scanDocuments(Class, DocumentScanOptions)}) and merges them into one parallel stream. The order of the
+	 * documents is undefined.
+	 * 
+	 * @param type
+	 *            The type of the documents (POJO class, VPackSlice or String for Json)
+	 * @param options
+	 *            Additional options, can be null
+	 * @return a parallel stream of all documents
+	 */
+	public <T> CompletableFuture<Stream<T>> scanDocumentsStream(
+		final Class<T> type,
+		final DocumentScanOptions options) {
+		return scanDocuments(type, options)
+				.thenApply(cursors -> cursors.parallelStream().flatMap(ArangoCursorAsync::streamRemaining));
+	}
+
+	private CompletableFuture<List<String>> sampleBoundaries(final int partitions, final int samples) {
+		if (partitions <= 1) {
+			return CompletableFuture.completedFuture(new ArrayList<>());
+		}
+		final int count = partitions * samples;
+		final Map<String, Object> bindVars = new HashMap<>();
+		bindVars.put("@collection", name());
+		bindVars.put("count", count);
+		return db().query(SAMPLE_QUERY, bindVars, new AqlQueryOptions().batchSize(count), String.class)
+				.thenApply(cursor -> {
+					final List<String> keys = cursor.asListRemaining();
+					final List<String> boundaries = new ArrayList<>();
+					for (int i = 1; i < partitions && !keys.isEmpty(); i++) {
+						final String key = keys.get(i * keys.size() / partitions);
+						if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(key)) {
+							boundaries.add(key);
+						}
+					}
+					return boundaries;
+				});
+	}
+
+	private <T> CompletableFuture<List<ArangoCursorAsync<T>>> scanPartitions(
+		final List<String> boundaries,
+		final Class<T> type,
+		final DocumentScanOptions params) {
+		final AqlQueryOptions queryOptions = new AqlQueryOptions().batchSize(params.getBatchSize())
+				.ttl(params.getTtl());
+		final List<CompletableFuture<CursorEntity>> partitions = new ArrayList<>();
+		for (int i = 0; i <= boundaries.size(); i++) {
+			final Map<String, Object> bindVars = new HashMap<>();
+			bindVars.put("@collection", name());
+			final StringBuilder query = new StringBuilder("FOR doc IN @@collection");
+			if (i > 0) {
+				query.append(" FILTER doc._key >= @from");
+				bindVars.put("from", boundaries.get(i - 1));
+			}
+			if (i < boundaries.size()) {
+				query.append(" FILTER doc._key < @to");
+				bindVars.put("to", boundaries.get(i));
+			}
+			query.append(" RETURN doc");
+			partitions.add(db().cursorEntity(query.toString(), bindVars, queryOptions));
+		}
+		return CompletableFuture.allOf(partitions.toArray(new CompletableFuture<?>[partitions.size()]))
+				.handle((v, ex) -> {
+					if (ex != null) {
+						for (final CompletableFuture<CursorEntity> partition : partitions) {
+							partition.thenAccept(cursor -> {
+								if (cursor.getHasMore() != null && cursor.getHasMore()) {
+									db().closeCursor(cursor.getId());
+								}
+							});
+						}
+						throw ex instanceof CompletionException ? (CompletionException) ex
+								: new CompletionException(ex);
+					}
+					final List<ArangoCursorAsync<T>> cursors = new ArrayList<>();
+					for (final CompletableFuture<CursorEntity> partition : partitions) {
+						cursors.add(db().createCursor(partition.join(), type));
+					}
+					return cursors;
+				});
+	}
+
 	/**
 	 * Reads a single document
 	 * 
@@ -248,7 +504,22 @@ public class ArangoCollectionAsync extends
 		final Collection<String> keys,
 		final Class<T> type) {
 		final DocumentReadOptions options = new DocumentReadOptions();
-		return executor.execute(getDocumentsRequest(keys, options), getDocumentsResponseDeserializer(type, options));
+		final Integer maxDocuments = executor.maxBatchDocuments();
+		final Integer maxBytes = executor.maxBatchBytes();
+		if (!MultiDocumentSplitter.isSplitRequired(keys.size(), maxDocuments, maxBytes)) {
+			return executor.executeMultiDocument(getDocumentsRequest(keys, options),
+				(from, to) -> getDocumentsResponseDeserializer(type, options));
+		}
+		final List<String> list = new ArrayList<>(keys);
+		final List<Integer> bounds = MultiDocumentSplitter.split(list.size(),
+			i -> MultiDocumentSplitter.stringByteSize(list.get(i)), maxDocuments, maxBytes);
+		final List<CompletableFuture<MultiDocumentEntity<T>>> batches = new ArrayList<>();
+		for (int i = 1; i < bounds.size(); i++) {
+			final List<String> batch = list.subList(bounds.get(i - 1), bounds.get(i));
+			batches.add(executor.executeMultiDocument(getDocumentsRequest(batch, options),
+				(from, to) -> getDocumentsResponseDeserializer(type, options)));
+		}
+		return MultiDocumentSplitter.merge(batches);
 	}
 
 	/**
@@ -303,8 +574,9 @@ public class ArangoCollectionAsync extends
 	public <T> CompletableFuture<MultiDocumentEntity<DocumentUpdateEntity<T>>> replaceDocuments(
 		final Collection<T> values) {
 		final DocumentReplaceOptions params = new DocumentReplaceOptions();
-		return executor.execute(replaceDocumentsRequest(values, params),
-			replaceDocumentsResponseDeserializer(values, params));
+		final List<T> documents = asList(values);
+		return executor.executeMultiDocument(replaceDocumentsRequest(documents, params),
+			(from, to) -> replaceDocumentsResponseDeserializer(documents.subList(from, to), params));
 	}
 
 	/**
@@ -323,8 +595,9 @@ public class ArangoCollectionAsync extends
 		final Collection<T> values,
 		final DocumentReplaceOptions options) {
 		final DocumentReplaceOptions params = (options != null ? options : new DocumentReplaceOptions());
-		return executor.execute(replaceDocumentsRequest(values, params),
-			replaceDocumentsResponseDeserializer(values, params));
+		final List<T> documents = asList(values);
+		return executor.executeMultiDocument(replaceDocumentsRequest(documents, params),
+			(from, to) -> replaceDocumentsResponseDeserializer(documents.subList(from, to), params));
 	}
 
 	/**
@@ -382,8 +655,9 @@ public class ArangoCollectionAsync extends
 	public <T> CompletableFuture<MultiDocumentEntity<DocumentUpdateEntity<T>>> updateDocuments(
 		final Collection<T> values) {
 		final DocumentUpdateOptions params = new DocumentUpdateOptions();
-		return executor.execute(updateDocumentsRequest(values, params),
-			updateDocumentsResponseDeserializer(values, params));
+		final List<T> documents = asList(values);
+		return executor.executeMultiDocument(updateDocumentsRequest(documents, params),
+			(from, to) -> updateDocumentsResponseDeserializer(documents.subList(from, to), params));
 	}
 
 	/**
@@ -404,8 +678,9 @@ public class ArangoCollectionAsync extends
 		final Collection<T> values,
 		final DocumentUpdateOptions options) {
 		final DocumentUpdateOptions params = (options != null ? options : new DocumentUpdateOptions());
-		return executor.execute(updateDocumentsRequest(values, params),
-			updateDocumentsResponseDeserializer(values, params));
+		final List<T> documents = asList(values);
+		return executor.executeMultiDocument(updateDocumentsRequest(documents, params),
+			(from, to) -> updateDocumentsResponseDeserializer(documents.subList(from, to), params));
 	}
 
 	/**
@@ -461,8 +736,8 @@ public class ArangoCollectionAsync extends
 	 */
 	public CompletableFuture<MultiDocumentEntity<DocumentDeleteEntity<Void>>> deleteDocuments(
 		final Collection<?> values) {
-		return executor.execute(deleteDocumentsRequest(values, new DocumentDeleteOptions()),
-			deleteDocumentsResponseDeserializer(Void.class));
+		return executor.executeMultiDocument(deleteDocumentsRequest(values, new DocumentDeleteOptions()),
+			(from, to) -> deleteDocumentsResponseDeserializer(Void.class));
 	}
 
 	/**
@@ -484,7 +759,111 @@ public class ArangoCollectionAsync extends
 		final Collection<?> values,
 		final Class<T> type,
 		final DocumentDeleteOptions options) {
-		return executor.execute(deleteDocumentsRequest(values, options), deleteDocumentsResponseDeserializer(type));
+		return executor.executeMultiDocument(deleteDocumentsRequest(values, options),
+			(from, to) -> deleteDocumentsResponseDeserializer(type));
+	}
+
+	/**
+	 * Partially updates the documents of the given stream. The stream is cut into batches which are sent as
+	 * multi-document requests (see {@link #updateDocuments(Collection, DocumentUpdateOptions)}), with multiple requests
+	 * in flight at the same time. The results of every batch are passed to the consumer as soon as they arrive and are
+	 * not retained afterwards.
+	 * 
+	 * @param values
+	 *            A stream of documents (POJO, VPackSlice or String for Json)
+	 * @param options
+	 *            Additional options, can be null
+	 * @param bulkOptions
+	 *            Batching options, can be null
+	 * @param consumer
+	 *            Receives the results of every batch, one batch at a time but not necessarily in order of the stream.
+	 *            Can be null.
+	 * @return number of updated documents and errors
+	 */
+	public <T> CompletableFuture<DocumentBulkEntity> bulkUpdateDocuments(
+		final Stream<T> values,
+		final DocumentUpdateOptions options,
+		final DocumentBulkOptions bulkOptions,
+		final Consumer<MultiDocumentEntity<DocumentUpdateEntity<T>>> consumer) {
+		final DocumentUpdateOptions params = (options != null ? options : new DocumentUpdateOptions());
+		return bulk(values, bulkOptions, batch -> executor.executeMultiDocument(updateDocumentsRequest(batch, params),
+			(from, to) -> updateDocumentsResponseDeserializer(batch.subList(from, to), params)), consumer);
+	}
+
+	/**
+	 * Replaces the documents of the given stream. The stream is cut into batches which are sent as multi-document
+	 * requests (see {@link #replaceDocuments(Collection, DocumentReplaceOptions)}), with multiple requests in flight at
+	 * the same time. The results of every batch are passed to the consumer as soon as they arrive and are not retained
+	 * afterwards.
+	 * 
+	 * @param values
+	 *            A stream of documents (POJO, VPackSlice or String for Json)
+	 * @param options
+	 *            Additional options, can be null
+	 * @param bulkOptions
+	 *            Batching options, can be null
+	 * @param consumer
+	 *            Receives the results of every batch, one batch at a time but not necessarily in order of the stream.
+	 *            Can be null.
+	 * @return number of replaced documents and errors
+	 */
+	public <T> CompletableFuture<DocumentBulkEntity> bulkReplaceDocuments(
+		final Stream<T> values,
+		final DocumentReplaceOptions options,
+		final DocumentBulkOptions bulkOptions,
+		final Consumer<MultiDocumentEntity<DocumentUpdateEntity<T>>> consumer) {
+		final DocumentReplaceOptions params = (options != null ? options : new DocumentReplaceOptions());
+		return bulk(values, bulkOptions, batch -> executor.executeMultiDocument(replaceDocumentsRequest(batch, params),
+			(from, to) -> replaceDocumentsResponseDeserializer(batch.subList(from, to), params)), consumer);
+	}
+
+	/**
+	 * Removes the documents of the given stream. The stream is cut into batches which are sent as multi-document
+	 * requests (see {@link #deleteDocuments(Collection, Class, DocumentDeleteOptions)}), with multiple requests in
+	 * flight at the same time. The results of every batch are passed to the consumer as soon as they arrive and are not
+	 * retained afterwards.
+	 * 
+	 * @param values
+	 *            A stream of keys of the documents or the documents themselves
+	 * @param type
+	 *            The type of the documents (POJO class, VPackSlice or String for Json). Only necessary if
+	 *            options.returnOld is set to true, otherwise can be null.
+	 * @param options
+	 *            Additional options, can be null
+	 * @param bulkOptions
+	 *            Batching options, can be null
+	 * @param consumer
+	 *            Receives the results of every batch, one batch at a time but not necessarily in order of the stream.
+	 *            Can be null.
+	 * @return number of removed documents and errors
+	 */
+	public <T> CompletableFuture<DocumentBulkEntity> bulkDeleteDocuments(
+		final Stream<?> values,
+		final Class<T> type,
+		final DocumentDeleteOptions options,
+		final DocumentBulkOptions bulkOptions,
+		final Consumer<MultiDocumentEntity<DocumentDeleteEntity<T>>> consumer) {
+		final DocumentDeleteOptions params = (options != null ? options : new DocumentDeleteOptions());
+		return bulk(values, bulkOptions,
+			batch -> executor.executeMultiDocument(deleteDocumentsRequest(batch, params),
+				(from, to) -> deleteDocumentsResponseDeserializer(type)),
+			consumer);
+	}
+
+	private static <T> List<T> asList(final Collection<T> values) {
+		return values instanceof List ? (List<T>) values : new ArrayList<>(values);
+	}
+
+	private <V, E> CompletableFuture<DocumentBulkEntity> bulk(
+		final Stream<V> values,
+		final DocumentBulkOptions options,
+		final Function<List<V>, CompletableFuture<MultiDocumentEntity<E>>> execute,
+		final Consumer<MultiDocumentEntity<E>> consumer) {
+		final DocumentBulkOptions params = (options != null ? options : new DocumentBulkOptions());
+		return new DocumentBulkWriter<>(values.iterator(),
+				params.getBatchSize() != null ? params.getBatchSize() : DEFAULT_BULK_BATCH_SIZE,
+				params.getMaxPendingBatches() != null ? params.getMaxPendingBatches() : DEFAULT_BULK_PENDING_BATCHES,
+				execute, consumer, executor.blockingExecutor()).execute().whenComplete((result, ex) -> values.close());
 	}
 
 	/**
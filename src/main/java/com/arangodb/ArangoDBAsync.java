@@ -25,13 +25,21 @@ import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.net.ssl.SSLContext;
 
 import com.arangodb.entity.ArangoDBVersion;
+import com.arangodb.entity.LoadBalancingStrategy;
 import com.arangodb.entity.LogEntity;
 import com.arangodb.entity.LogLevelEntity;
 import com.arangodb.entity.Permissions;
@@ -58,7 +66,13 @@ import com.arangodb.internal.velocystream.VstCommunicationAsync;
 import com.arangodb.internal.velocystream.VstCommunicationSync;
 import com.arangodb.internal.velocystream.VstProtocol;
 import com.arangodb.internal.velocystream.internal.ConnectionSync;
+import com.arangodb.metrics.ArangoMetrics;
+import com.arangodb.model.CircuitBreakerOptions;
+import com.arangodb.model.ConnectionGroupOptions;
+import com.arangodb.model.ConnectionPoolOptions;
+import com.arangodb.model.HedgingOptions;
 import com.arangodb.model.LogOptions;
+import com.arangodb.model.RetryOptions;
 import com.arangodb.model.UserCreateOptions;
 import com.arangodb.model.UserUpdateOptions;
 import com.arangodb.util.ArangoDeserializer;
@@ -97,6 +111,25 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 		private SSLContext sslContext;
 		private Integer chunksize;
 		private Integer maxConnections;
+		private LoadBalancingStrategy loadBalancingStrategy;
+		private CircuitBreakerOptions circuitBreaker;
+		private Integer healthCheckInterval;
+		private HedgingOptions hedging;
+		private RetryOptions retry;
+		private ConnectionPoolOptions connectionPool;
+		private final Map<String, ConnectionGroupOptions> connectionGroups;
+		private Boolean acquireHostList;
+		private Integer acquireHostListInterval;
+		private Executor completionExecutor;
+		private Executor blockingExecutor;
+		private ArangoMetrics metrics;
+		private final List<ArangoInterceptor> interceptors;
+		private Integer maxBatchDocuments;
+		private Integer maxBatchBytes;
+		private Integer parallelSerializationThreshold;
+		private ForkJoinPool parallelSerializationPool;
+		private Integer parallelDeserializationThreshold;
+		private Executor parallelDeserializationExecutor;
 		private final VPack.Builder vpackBuilder;
 		private final VPackParser.Builder vpackParserBuilder;
 		private ArangoSerializer serializer;
@@ -104,6 +137,7 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 
 		public Builder() {
 			super();
+			connectionGroups = new LinkedHashMap<>();
 			vpackBuilder = new VPack.Builder();
 			vpackParserBuilder = new VPackParser.Builder();
 			vpackBuilder.registerModule(new VPackDriverModule());
@@ -111,6 +145,7 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 			vpackBuilder.registerModule(new VPackJdk8Module());
 			host = new Host(ArangoDBConstants.DEFAULT_HOST, ArangoDBConstants.DEFAULT_PORT);
 			hosts = new ArrayList<>();
+			interceptors = new ArrayList<>();
 			loadProperties(ArangoDBAsync.class.getResourceAsStream(DEFAULT_PROPERTY_FILE));
 		}
 
@@ -174,6 +209,17 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 			return this;
 		}
 
+		/**
+		 * Removes the hosts added so far, including the ones configured in the default property file
+		 * <code>arangodb.properties</code>.
+		 * 
+		 * @return {@link ArangoDB.Builder}
+		 */
+		public Builder clearHosts() {
+			hosts.clear();
+			return this;
+		}
+
 		public Builder timeout(final Integer timeout) {
 			this.timeout = timeout;
 			return this;
@@ -209,6 +255,288 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 			return this;
 		}
 
+		/**
+		 * Makes the number of connections per host elastic: instead of opening connections up to
+		 * {@link #maxConnections(Integer)} with the first requests, another connection is only opened when the
+		 * existing ones have more than a threshold of requests waiting for a response. Connections without requests
+		 * for the idle timeout are closed again, down to a minimum.
+		 * 
+		 * @param connectionPool
+		 *            options of the elastic pool, default null (connections are opened up to the maximum and kept)
+		 * @return builder
+		 */
+		public Builder connectionPool(final ConnectionPoolOptions connectionPool) {
+			this.connectionPool = connectionPool;
+			return this;
+		}
+
+		/**
+		 * Adds a named group of connections, separate from the default connections. Requests of handles returned by
+		 * {@link ArangoDatabaseAsync#connectionGroup(String)} and {@link ArangoCollectionAsync#connectionGroup(String)}
+		 * are only sent on the connections of the group, e.g. to keep large imports from delaying small reads. All
+		 * other settings of the driver apply to the group as well. Only the connections are separate, the group shares
+		 * the host list, circuit breakers, health checks, hedging and retry budgets with the default connections.
+		 * 
+		 * @param name
+		 *            name of the group
+		 * @param options
+		 *            size and chunksize of the group
+		 * @return builder
+		 */
+		public Builder connectionGroup(final String name, final ConnectionGroupOptions options) {
+			connectionGroups.put(name, options);
+			return this;
+		}
+
+		/**
+		 * Sets the strategy to distribute the requests across the hosts added with {@link #host(String, int)}. With
+		 * a strategy other than {@link LoadBalancingStrategy#NONE} every host gets its own connections, up to
+		 * {@link #maxConnections(Integer)} per host.
+		 * 
+		 * @param loadBalancingStrategy
+		 *            strategy to distribute the requests, default {@link LoadBalancingStrategy#NONE} (one host, the
+		 *            others are fallbacks)
+		 * @return builder
+		 */
+		public Builder loadBalancingStrategy(final LoadBalancingStrategy loadBalancingStrategy) {
+			this.loadBalancingStrategy = loadBalancingStrategy;
+			return this;
+		}
+
+		/**
+		 * Enables the periodic acquisition of the coordinators of the cluster, which then replace the hosts of the
+		 * {@link #loadBalancingStrategy(LoadBalancingStrategy)}. Coordinators added to the cluster get requests
+		 * without a restart, removed ones are closed after their pending requests were answered. The hosts added with
+		 * {@link #host(String, int)} are only used for the first acquisition. Requires a load balancing strategy other
+		 * than {@link LoadBalancingStrategy#NONE}, {@link #build()} fails otherwise.
+		 * 
+		 * @param acquireHostList
+		 *            whether to acquire the hosts from the cluster, default false
+		 * @return builder
+		 */
+		public Builder acquireHostList(final Boolean acquireHostList) {
+			this.acquireHostList = acquireHostList;
+			return this;
+		}
+
+		/**
+		 * @param acquireHostListInterval
+		 *            interval in milliseconds in which the hosts are acquired from the cluster, see
+		 *            {@link #acquireHostList(Boolean)}. Default: 60000
+		 * @return builder
+		 */
+		public Builder acquireHostListInterval(final Integer acquireHostListInterval) {
+			this.acquireHostListInterval = acquireHostListInterval;
+			return this;
+		}
+
+		/**
+		 * Enables a circuit breaker per host of the {@link #loadBalancingStrategy(LoadBalancingStrategy)}. A host
+		 * whose failure rate exceeds the threshold gets no requests until its open duration elapsed, then a single
+		 * request probes whether it recovered.
+		 * 
+		 * @param circuitBreaker
+		 *            options of the circuit breakers, default null (disabled)
+		 * @return builder
+		 */
+		public Builder circuitBreaker(final CircuitBreakerOptions circuitBreaker) {
+			this.circuitBreaker = circuitBreaker;
+			return this;
+		}
+
+		/**
+		 * Enables health checks of the hosts of the {@link #loadBalancingStrategy(LoadBalancingStrategy)}. Every host
+		 * gets a version request in the given interval. A host which does not answer within the interval opens its
+		 * circuit, see {@link #circuitBreaker(CircuitBreakerOptions)}. The results are reported to
+		 * {@link ArangoMetrics#healthChecked(String, boolean, long)}.
+		 * 
+		 * @param healthCheckInterval
+		 *            interval of the health checks in milliseconds, default null (disabled)
+		 * @return builder
+		 */
+		public Builder healthCheckInterval(final Integer healthCheckInterval) {
+			this.healthCheckInterval = healthCheckInterval;
+			return this;
+		}
+
+		/**
+		 * Enables hedging of idempotent reads: {@link ArangoCollectionAsync#getDocument(String, Class)},
+		 * {@link ArangoCollectionAsync#getDocuments(Collection, Class)} and AQL queries without data modification. If
+		 * the response takes longer than the hedging delay, a duplicate request is sent to another host or, if there
+		 * is none, another connection. The first response is used, the other one is dropped.
+		 * 
+		 * @param hedging
+		 *            options of the hedging, default null (disabled)
+		 * @return builder
+		 */
+		public Builder hedging(final HedgingOptions hedging) {
+			this.hedging = hedging;
+			return this;
+		}
+
+		/**
+		 * Enables automatic retries of requests which can safely be sent more than once: reads except queries and
+		 * replacing documents without revision precondition. They are retried after a lost connection or a response
+		 * with code 503, after a random exponential backoff and as long as the retry budget allows.
+		 * 
+		 * @param retry
+		 *            options of the retries, default null (disabled)
+		 * @return builder
+		 */
+		public Builder retry(final RetryOptions retry) {
+			this.retry = retry;
+			return this;
+		}
+
+		/**
+		 * Sets the executor on which responses are deserialized and the returned {@link CompletableFuture}s are
+		 * completed, including all dependent stages which are not explicitly async. By default this happens inline on
+		 * the thread reading from the connection, which is cheapest but lets slow callbacks delay the responses of
+		 * other requests on the same connection. On Java 21+ an executor creating a virtual thread per task (
+		 * <code>Executors.newVirtualThreadPerTaskExecutor()</code>) can be used.
+		 * <p>
+		 * The executor must run every task it accepts and must not reject tasks, a rejected task leaves its request
+		 * without completion. Callbacks on the executor may call the driver again, also with a single thread: the
+		 * authentication of a new connection is always completed inline, as opening the connection waits for it.
+		 * 
+		 * @param completionExecutor
+		 *            executor for response processing, default null (inline)
+		 * @return builder
+		 */
+		public Builder completionExecutor(final Executor completionExecutor) {
+			this.completionExecutor = completionExecutor;
+			return this;
+		}
+
+		/**
+		 * Sets the executor on which the blocking parts of the driver run, which are opening and authenticating a
+		 * connection. Without an executor they run on the thread calling the driver, which therefore may block on
+		 * its first request. On Java 21+ an executor creating a virtual thread per task (
+		 * <code>Executors.newVirtualThreadPerTaskExecutor()</code>) can be used.
+		 * 
+		 * @param blockingExecutor
+		 *            executor for blocking operations, default null (calling thread)
+		 * @return builder
+		 */
+		public Builder blockingExecutor(final Executor blockingExecutor) {
+			this.blockingExecutor = blockingExecutor;
+			return this;
+		}
+
+		/**
+		 * Sets the receiver of measurements like operation latency, in-flight messages per connection, bytes and
+		 * chunks sent and error counts, e.g. an {@link com.arangodb.metrics.ArangoMetricsRecorder}.
+		 * 
+		 * @param metrics
+		 *            receiver of measurements, default null (no measurements)
+		 * @return builder
+		 */
+		public Builder metrics(final ArangoMetrics metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+
+		/**
+		 * Adds an interceptor which is called before every request is sent, after its response is received and on
+		 * errors. Interceptors are called in the order they were added.
+		 * 
+		 * @param interceptor
+		 *            interceptor to add
+		 * @return builder
+		 */
+		public Builder interceptor(final ArangoInterceptor interceptor) {
+			interceptors.add(interceptor);
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of documents sent in one request by
+		 * {@link ArangoCollectionAsync#insertDocuments(Collection)} and
+		 * {@link ArangoCollectionAsync#getDocuments(Collection, Class)}. Larger collections are split into multiple
+		 * requests which are executed concurrently. The results are merged in the original order.
+		 * 
+		 * @param maxBatchDocuments
+		 *            maximum number of documents per request, default unlimited
+		 * @return builder
+		 */
+		public Builder maxBatchDocuments(final Integer maxBatchDocuments) {
+			this.maxBatchDocuments = maxBatchDocuments;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum serialized size of the documents sent in one request by
+		 * {@link ArangoCollectionAsync#insertDocuments(Collection)} and
+		 * {@link ArangoCollectionAsync#getDocuments(Collection, Class)}. Larger collections are split into multiple
+		 * requests which are executed concurrently. The results are merged in the original order.
+		 * 
+		 * @param maxBatchBytes
+		 *            maximum size of the documents per request in bytes, default unlimited
+		 * @return builder
+		 */
+		public Builder maxBatchBytes(final Integer maxBatchBytes) {
+			this.maxBatchBytes = maxBatchBytes;
+			return this;
+		}
+
+		/**
+		 * Enables parallel serialization of the documents passed to
+		 * {@link ArangoCollectionAsync#insertDocuments(Collection)}. Lists with at least the given number of documents
+		 * are cut into chunks which are serialized in parallel and concatenated into the request body.
+		 * <p>
+		 * Disabled by default, because handing chunks to the pool only pays off for lists which take longer to
+		 * serialize than the coordination costs, and because the pool is shared with other work. In
+		 * <code>DocumentSerializerBenchmark</code> of the benchmark module parallel serialization was 1.7 to 2.6 times
+		 * slower below 1000 documents, on par at 1000 and faster at 10000 (see the README for the numbers).
+		 * 
+		 * @param parallelSerializationThreshold
+		 *            minimum number of documents to serialize in parallel, default disabled
+		 * @return builder
+		 */
+		public Builder parallelSerializationThreshold(final Integer parallelSerializationThreshold) {
+			this.parallelSerializationThreshold = parallelSerializationThreshold;
+			return this;
+		}
+
+		/**
+		 * Sets the pool used for parallel serialization (see {@link #parallelSerializationThreshold(Integer)}).
+		 * 
+		 * @param parallelSerializationPool
+		 *            pool for parallel serialization, default {@link ForkJoinPool#commonPool()}
+		 * @return builder
+		 */
+		public Builder parallelSerializationPool(final ForkJoinPool parallelSerializationPool) {
+			this.parallelSerializationPool = parallelSerializationPool;
+			return this;
+		}
+
+		/**
+		 * Enables parallel deserialization of multi-document responses (e.g.
+		 * {@link ArangoCollectionAsync#getDocuments(Collection, Class)}). Responses with at least the given number of
+		 * documents are handed off to the executor set with {@link #parallelDeserializationExecutor(Executor)}, which
+		 * frees the thread that received the response, and are deserialized there in parallel chunks.
+		 * 
+		 * @param parallelDeserializationThreshold
+		 *            minimum number of documents to deserialize in parallel, default disabled
+		 * @return builder
+		 */
+		public Builder parallelDeserializationThreshold(final Integer parallelDeserializationThreshold) {
+			this.parallelDeserializationThreshold = parallelDeserializationThreshold;
+			return this;
+		}
+
+		/**
+		 * Sets the executor used for parallel deserialization (see {@link #parallelDeserializationThreshold(Integer)}).
+		 * 
+		 * @param parallelDeserializationExecutor
+		 *            executor for parallel deserialization, default {@link ForkJoinPool#commonPool()}
+		 * @return builder
+		 */
+		public Builder parallelDeserializationExecutor(final Executor parallelDeserializationExecutor) {
+			this.parallelDeserializationExecutor = parallelDeserializationExecutor;
+			return this;
+		}
+
 		public <T> Builder registerSerializer(final Class<T> clazz, final VPackSerializer<T> serializer) {
 			vpackBuilder.registerSerializer(clazz, serializer);
 			return this;
@@ -329,6 +657,10 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 		}
 
 		public synchronized ArangoDBAsync build() {
+			if (acquireHostList != null && acquireHostList
+					&& (loadBalancingStrategy == null || loadBalancingStrategy == LoadBalancingStrategy.NONE)) {
+				throw new ArangoDBException("acquireHostList requires a load balancing strategy other than NONE");
+			}
 			if (hosts.isEmpty()) {
 				hosts.add(host);
 			}
@@ -344,13 +676,45 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 			final ArangoDeserializer deserializerTemp = deserializer != null ? deserializer
 					: new ArangoDeserializerImpl(vpackerNull, vpackParser);
 			final HostHandler hostHandler = new DefaultHostHandler(new ArrayList<>(hosts));
-			return new ArangoDBAsync(asyncBuilder(hostHandler), new ArangoUtilImpl(serializerTemp, deserializerTemp),
-					collectionCache, syncBuilder(hostHandler));
+			final Map<String, VstCommunicationAsync.Builder> groups = new LinkedHashMap<>();
+			for (final Entry<String, ConnectionGroupOptions> group : connectionGroups.entrySet()) {
+				groups.put(group.getKey(), groupBuilder(hostHandler, group.getValue()));
+			}
+			return new ArangoDBAsync(asyncBuilder(hostHandler), executorBuilder(),
+					new ArangoUtilImpl(serializerTemp, deserializerTemp), collectionCache, syncBuilder(hostHandler),
+					groups);
+		}
+
+		private VstCommunicationAsync.Builder groupBuilder(
+			final HostHandler hostHandler,
+			final ConnectionGroupOptions options) {
+			final VstCommunicationAsync.Builder builder = asyncBuilder(hostHandler);
+			if (options.getMaxConnections() != null) {
+				builder.maxConnections(options.getMaxConnections());
+			}
+			if (options.getChunksize() != null) {
+				builder.chunksize(options.getChunksize());
+			}
+			return builder;
+		}
+
+		private ArangoExecutorAsync.Builder executorBuilder() {
+			return new ArangoExecutorAsync.Builder().maxBatchDocuments(maxBatchDocuments).maxBatchBytes(maxBatchBytes)
+					.parallelSerializationThreshold(parallelSerializationThreshold)
+					.parallelSerializationPool(parallelSerializationPool)
+					.parallelDeserializationThreshold(parallelDeserializationThreshold)
+					.parallelDeserializationExecutor(parallelDeserializationExecutor).metrics(metrics).retry(retry)
+					.interceptors(interceptors);
 		}
 
 		private VstCommunicationAsync.Builder asyncBuilder(final HostHandler hostHandler) {
-			return new VstCommunicationAsync.Builder(hostHandler).timeout(timeout).user(user).password(password)
-					.useSsl(useSsl).sslContext(sslContext).chunksize(chunksize).maxConnections(maxConnections);
+			return new VstCommunicationAsync.Builder(hostHandler).hosts(new ArrayList<>(hosts)).timeout(timeout)
+					.user(user).password(password).useSsl(useSsl).sslContext(sslContext).chunksize(chunksize)
+					.maxConnections(maxConnections).connectionPool(connectionPool)
+					.loadBalancingStrategy(loadBalancingStrategy).circuitBreaker(circuitBreaker)
+					.healthCheckInterval(healthCheckInterval).hedging(hedging)
+					.acquireHostList(acquireHostList).acquireHostListInterval(acquireHostListInterval)
+					.completionExecutor(completionExecutor).blockingExecutor(blockingExecutor).metrics(metrics);
 		}
 
 		private VstCommunicationSync.Builder syncBuilder(final HostHandler hostHandler) {
@@ -361,10 +725,31 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 	}
 
 	private final CommunicationProtocol cp;
+	private final Map<String, ArangoExecutorAsync> connectionGroups;
 
 	public ArangoDBAsync(final VstCommunicationAsync.Builder commBuilder, final ArangoSerialization util,
 		final CollectionCache collectionCache, final VstCommunicationSync.Builder syncbuilder) {
-		super(new ArangoExecutorAsync(commBuilder.build(util, collectionCache), util, new DocumentCache()), util);
+		this(commBuilder, new ArangoExecutorAsync.Builder(), util, collectionCache, syncbuilder);
+	}
+
+	public ArangoDBAsync(final VstCommunicationAsync.Builder commBuilder,
+		final ArangoExecutorAsync.Builder executorBuilder, final ArangoSerialization util,
+		final CollectionCache collectionCache, final VstCommunicationSync.Builder syncbuilder) {
+		this(commBuilder, executorBuilder, util, collectionCache, syncbuilder,
+				Collections.<String, VstCommunicationAsync.Builder> emptyMap());
+	}
+
+	public ArangoDBAsync(final VstCommunicationAsync.Builder commBuilder,
+		final ArangoExecutorAsync.Builder executorBuilder, final ArangoSerialization util,
+		final CollectionCache collectionCache, final VstCommunicationSync.Builder syncbuilder,
+		final Map<String, VstCommunicationAsync.Builder> connectionGroups) {
+		super(executorBuilder.build(commBuilder.build(util, collectionCache), util, new DocumentCache()), util);
+		this.connectionGroups = new HashMap<>();
+		for (final Entry<String, VstCommunicationAsync.Builder> group : connectionGroups.entrySet()) {
+			// only the connections are separate, the groups share the host list, health and retries
+			this.connectionGroups.put(group.getKey(), executor.connectionGroup(
+				group.getValue().build(util, collectionCache, executor.communication()), util));
+		}
 		final VstCommunication<Response, ConnectionSync> cacheCom = syncbuilder.build(util, collectionCache);
 		cp = new VstProtocol(cacheCom);
 		collectionCache.init(new DBAccess() {
@@ -380,9 +765,20 @@ public class ArangoDBAsync extends InternalArangoDB<ArangoExecutorAsync, Complet
 		return executor;
 	}
 
+	ArangoExecutorAsync executor(final String connectionGroup) throws ArangoDBException {
+		final ArangoExecutorAsync groupExecutor = connectionGroups.get(connectionGroup);
+		if (groupExecutor == null) {
+			throw new ArangoDBException(String.format("Unknown connection group: %s", connectionGroup));
+		}
+		return groupExecutor;
+	}
+
 	public void shutdown() throws ArangoDBException {
 		try {
 			executor.disconnect();
+			for (final ArangoExecutorAsync groupExecutor : connectionGroups.values()) {
+				groupExecutor.disconnect();
+			}
 			cp.close();
 		} catch (final IOException e) {
 			throw new ArangoDBException(e);
@@ -23,7 +23,6 @@ package com.arangodb;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 
 import com.arangodb.entity.AqlExecutionExplainEntity;
 import com.arangodb.entity.AqlFunctionEntity;
@@ -74,11 +73,33 @@ public class ArangoDatabaseAsync extends
 		super(arangoDB, arangoDB.executor(), arangoDB.util(), name);
 	}
 
+	protected ArangoDatabaseAsync(final ArangoDBAsync arangoDB, final ArangoExecutorAsync executor, final String name) {
+		super(arangoDB, executor, arangoDB.util(), name);
+	}
+
 	protected ArangoDatabaseAsync(final VstCommunicationAsync communication, final ArangoSerialization util,
 		final DocumentCache documentCache, final CollectionCache collectionCache, final String name) {
 		super(null, new ArangoExecutorAsync(communication, util, documentCache), util, name);
 	}
 
+	/**
+	 * Returns a handler of this database whose requests are sent on the connections of the given group, see
+	 * {@link ArangoDBAsync.Builder#connectionGroup(String, com.arangodb.model.ConnectionGroupOptions)}. Collections
+	 * of the returned handler use the group as well.
+	 * 
+	 * @param name
+	 *            Name of the connection group
+	 * @return database handler
+	 * @throws ArangoDBException
+	 *             if the group does not exist
+	 */
+	public ArangoDatabaseAsync connectionGroup(final String name) throws ArangoDBException {
+		if (arango() == null) {
+			throw new ArangoDBException("Connection groups are not supported by this database handler");
+		}
+		return new ArangoDatabaseAsync(arango(), arango().executor(name), name());
+	}
+
 	/**
 	 * Returns the server name and version number.
 	 * 
@@ -369,26 +390,31 @@ public class ArangoDatabaseAsync extends
 		});
 	}
 
-	private <T> ArangoCursorAsync<T> createCursor(final CursorEntity result, final Class<T> type) {
+	CompletableFuture<CursorEntity> cursorEntity(
+		final String query,
+		final Map<String, Object> bindVars,
+		final AqlQueryOptions options) {
+		return executor.execute(queryRequest(query, bindVars, options), CursorEntity.class);
+	}
+
+	CompletableFuture<CursorEntity> nextCursorEntity(final String cursorId) {
+		return executor.execute(queryNextRequest(cursorId), CursorEntity.class);
+	}
+
+	CompletableFuture<Void> closeCursor(final String cursorId) {
+		return executor.execute(queryCloseRequest(cursorId), Void.class);
+	}
+
+	<T> ArangoCursorAsync<T> createCursor(final CursorEntity result, final Class<T> type) {
 		return new ArangoCursorAsync<>(this, new ArangoCursorExecute() {
 			@Override
 			public CursorEntity next(final String id) {
-				final CompletableFuture<CursorEntity> result = executor.execute(queryNextRequest(id),
-					CursorEntity.class);
-				try {
-					return result.get();
-				} catch (InterruptedException | ExecutionException e) {
-					throw new ArangoDBException(e);
-				}
+				return ArangoBlocking.get(nextCursorEntity(id));
 			}
 
 			@Override
 			public void close(final String id) {
-				try {
-					executor.execute(queryCloseRequest(id), Void.class).get();
-				} catch (InterruptedException | ExecutionException e) {
-					throw new ArangoDBException(e);
-				}
+				ArangoBlocking.get(closeCursor(id));
 			}
 		}, type, result);
 	}
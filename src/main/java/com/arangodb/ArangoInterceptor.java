@@ -0,0 +1,89 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.Response;
+
+/**
+ * Hooks around every request executed by {@link ArangoDBAsync}, e.g. for tracing, sampling or tagging requests.
+ * Interceptors are called in the order they were registered from the threads executing and completing requests, so
+ * implementations have to be thread-safe and should return quickly. Exceptions thrown by an interceptor are logged
+ * and do not affect the request. All methods do nothing by default.
+ * 
+ * <p>
+ * The size of a message is available through {@link Request#getBody()} and {@link Response#getBody()}.
+ * </p>
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public interface ArangoInterceptor {
+
+	/**
+	 * Called before the request is sent. The request may still be modified, e.g. to add header parameters.
+	 * 
+	 * @param request
+	 *            the request to be sent
+	 * @return context passed to {@link #afterReceive(Request, Response, Object, long)} and
+	 *         {@link #onError(Request, Throwable, Object, long)} of this interceptor for this request, e.g. a trace
+	 *         span, can be null
+	 */
+	default Object beforeSend(final Request request) {
+		return null;
+	}
+
+	/**
+	 * Called when a successful response was received, before it is deserialized.
+	 * 
+	 * @param request
+	 *            the sent request
+	 * @param response
+	 *            the received response
+	 * @param context
+	 *            the value returned by {@link #beforeSend(Request)}
+	 * @param durationNanos
+	 *            time since the request was passed to the driver
+	 */
+	default void afterReceive(
+		final Request request,
+		final Response response,
+		final Object context,
+		final long durationNanos) {
+	}
+
+	/**
+	 * Called when the request failed, either because no response was received, the server answered with an error or
+	 * the response could not be deserialized.
+	 * 
+	 * @param request
+	 *            the sent request
+	 * @param error
+	 *            the cause of the failure
+	 * @param context
+	 *            the value returned by {@link #beforeSend(Request)}
+	 * @param durationNanos
+	 *            time since the request was passed to the driver
+	 */
+	default void onError(final Request request, final Throwable error, final Object context, final long durationNanos) {
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import com.arangodb.entity.DocumentExportEntity;
+
+/**
+ * Thrown when an export fails after some documents were written. The partial result tells how far the export got,
+ * its {@link DocumentExportEntity#getLastKey()} can be passed to
+ * {@link com.arangodb.model.DocumentExportOptions#startAfter(String)} to resume it.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentExportException extends ArangoDBException {
+
+	private static final long serialVersionUID = 6281734150978716935L;
+
+	private final DocumentExportEntity partialResult;
+
+	public DocumentExportException(final Throwable cause, final DocumentExportEntity partialResult) {
+		super(String.format("Export failed after %s documents: %s", partialResult.getDocuments(),
+			cause.getMessage()));
+		initCause(cause);
+		this.partialResult = partialResult;
+	}
+
+	/**
+	 * @return the documents written before the export failed
+	 */
+	public DocumentExportEntity getPartialResult() {
+		return partialResult;
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.entity;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentBulkEntity {
+
+	private long documents;
+	private long errors;
+	private long batches;
+
+	public DocumentBulkEntity() {
+		super();
+	}
+
+	/**
+	 * @return number of successfully processed documents
+	 */
+	public long getDocuments() {
+		return documents;
+	}
+
+	public void setDocuments(final long documents) {
+		this.documents = documents;
+	}
+
+	/**
+	 * @return number of documents which could not be processed
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	public void setErrors(final long errors) {
+		this.errors = errors;
+	}
+
+	/**
+	 * @return number of requests sent to the server
+	 */
+	public long getBatches() {
+		return batches;
+	}
+
+	public void setBatches(final long batches) {
+		this.batches = batches;
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.entity;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentExportEntity {
+
+	private long documents;
+	private long bytes;
+	private long executionTime;
+	private String lastKey;
+
+	public DocumentExportEntity() {
+		super();
+	}
+
+	/**
+	 * @return number of exported documents
+	 */
+	public long getDocuments() {
+		return documents;
+	}
+
+	public void setDocuments(final long documents) {
+		this.documents = documents;
+	}
+
+	/**
+	 * @return number of bytes written
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	public void setBytes(final long bytes) {
+		this.bytes = bytes;
+	}
+
+	/**
+	 * @return duration of the export in milliseconds
+	 */
+	public long getExecutionTime() {
+		return executionTime;
+	}
+
+	public void setExecutionTime(final long executionTime) {
+		this.executionTime = executionTime;
+	}
+
+	/**
+	 * @return the _key of the last exported document. Can be used to resume an export with
+	 *         {@link com.arangodb.model.DocumentExportOptions#startAfter(String)}
+	 */
+	public String getLastKey() {
+		return lastKey;
+	}
+
+	public void setLastKey(final String lastKey) {
+		this.lastKey = lastKey;
+	}
+
+	/**
+	 * @return exported documents per second
+	 */
+	public double getDocumentsPerSecond() {
+		return executionTime > 0 ? documents * 1000.0 / executionTime : documents;
+	}
+
+	/**
+	 * @return written bytes per second
+	 */
+	public double getBytesPerSecond() {
+		return executionTime > 0 ? bytes * 1000.0 / executionTime : bytes;
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.entity;
+
+/**
+ * Strategy to distribute the requests of {@link com.arangodb.ArangoDBAsync} across the configured hosts.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public enum LoadBalancingStrategy {
+
+	/**
+	 * All requests are sent to one host, the next host is only used when the connection fails
+	 */
+	NONE,
+
+	/**
+	 * The hosts are used in turn
+	 */
+	ROUND_ROBIN,
+
+	/**
+	 * A random host is used for every request
+	 */
+	RANDOM,
+
+	/**
+	 * The host with the fewest requests waiting for a response is used
+	 */
+	LEAST_IN_FLIGHT,
+
+	/**
+	 * The faster of two random hosts is used, weighting the moving average of their response times by the number of
+	 * requests waiting for a response
+	 */
+	LATENCY_WEIGHTED
+
+}
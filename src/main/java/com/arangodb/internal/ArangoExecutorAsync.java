@@ -21,13 +21,31 @@
 package com.arangodb.internal;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.arangodb.ArangoDBException;
+import com.arangodb.ArangoInterceptor;
+import com.arangodb.entity.MultiDocumentEntity;
+import com.arangodb.internal.MultiDocumentDeserializer.ChunkDeserializer;
 import com.arangodb.internal.velocystream.VstCommunicationAsync;
+import com.arangodb.metrics.ArangoMetrics;
+import com.arangodb.model.RetryOptions;
 import com.arangodb.util.ArangoSerialization;
+import com.arangodb.velocypack.VPackSlice;
 import com.arangodb.velocypack.exception.VPackException;
 import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.Response;
 
 /**
  * @author Mark Vollmary
@@ -35,12 +53,186 @@ import com.arangodb.velocystream.Request;
  */
 public class ArangoExecutorAsync extends ArangoExecutor {
 
+	public static class Builder {
+
+		private Integer maxBatchDocuments;
+		private Integer maxBatchBytes;
+		private Integer parallelSerializationThreshold;
+		private ForkJoinPool parallelSerializationPool;
+		private Integer parallelDeserializationThreshold;
+		private Executor parallelDeserializationExecutor;
+		private ArangoMetrics metrics;
+		private RetryOptions retry;
+		private final Collection<ArangoInterceptor> interceptors;
+
+		public Builder() {
+			super();
+			interceptors = new ArrayList<>();
+		}
+
+		public Builder maxBatchDocuments(final Integer maxBatchDocuments) {
+			this.maxBatchDocuments = maxBatchDocuments;
+			return this;
+		}
+
+		public Builder maxBatchBytes(final Integer maxBatchBytes) {
+			this.maxBatchBytes = maxBatchBytes;
+			return this;
+		}
+
+		public Builder parallelSerializationThreshold(final Integer parallelSerializationThreshold) {
+			this.parallelSerializationThreshold = parallelSerializationThreshold;
+			return this;
+		}
+
+		public Builder parallelSerializationPool(final ForkJoinPool parallelSerializationPool) {
+			this.parallelSerializationPool = parallelSerializationPool;
+			return this;
+		}
+
+		public Builder parallelDeserializationThreshold(final Integer parallelDeserializationThreshold) {
+			this.parallelDeserializationThreshold = parallelDeserializationThreshold;
+			return this;
+		}
+
+		public Builder parallelDeserializationExecutor(final Executor parallelDeserializationExecutor) {
+			this.parallelDeserializationExecutor = parallelDeserializationExecutor;
+			return this;
+		}
+
+		public Builder metrics(final ArangoMetrics metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+
+		public Builder retry(final RetryOptions retry) {
+			this.retry = retry;
+			return this;
+		}
+
+		public Builder interceptor(final ArangoInterceptor interceptor) {
+			interceptors.add(interceptor);
+			return this;
+		}
+
+		public Builder interceptors(final Collection<ArangoInterceptor> interceptors) {
+			this.interceptors.addAll(interceptors);
+			return this;
+		}
+
+		public ArangoExecutorAsync build(
+			final VstCommunicationAsync communication,
+			final ArangoSerialization util,
+			final DocumentCache documentCache) {
+			return new ArangoExecutorAsync(communication, util, documentCache, maxBatchDocuments, maxBatchBytes,
+					new DocumentSerializer(parallelSerializationThreshold, parallelSerializationPool),
+					new MultiDocumentDeserializer(parallelDeserializationThreshold, parallelDeserializationExecutor),
+					metrics, retry != null ? new Retry(retry) : null,
+					interceptors.toArray(new ArangoInterceptor[interceptors.size()]));
+		}
+	}
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ArangoExecutorAsync.class);
+
 	private final VstCommunicationAsync communication;
+	private final Integer maxBatchDocuments;
+	private final Integer maxBatchBytes;
+	private final DocumentSerializer documentSerializer;
+	private final MultiDocumentDeserializer multiDocumentDeserializer;
+	private final ArangoMetrics metrics;
+	private final Retry retry;
+	private final ScheduledExecutorService scheduler;
+	private final boolean ownsScheduler;
+	private final ArangoInterceptor[] interceptors;
 
 	public ArangoExecutorAsync(final VstCommunicationAsync communication, final ArangoSerialization util,
 		final DocumentCache documentCache) {
+		this(communication, util, documentCache, null, null, new DocumentSerializer(null, null),
+				new MultiDocumentDeserializer(null, null), null, null, new ArangoInterceptor[0]);
+	}
+
+	private ArangoExecutorAsync(final VstCommunicationAsync communication, final ArangoSerialization util,
+		final DocumentCache documentCache, final Integer maxBatchDocuments, final Integer maxBatchBytes,
+		final DocumentSerializer documentSerializer, final MultiDocumentDeserializer multiDocumentDeserializer,
+		final ArangoMetrics metrics, final Retry retry, final ArangoInterceptor[] interceptors) {
 		super(util, documentCache);
 		this.communication = communication;
+		this.maxBatchDocuments = maxBatchDocuments;
+		this.maxBatchBytes = maxBatchBytes;
+		this.documentSerializer = documentSerializer;
+		this.multiDocumentDeserializer = multiDocumentDeserializer;
+		this.metrics = metrics;
+		this.retry = retry;
+		this.interceptors = interceptors;
+		ownsScheduler = true;
+		scheduler = retry != null ? Executors.newSingleThreadScheduledExecutor(r -> {
+			final Thread thread = new Thread(r, "arangodb-retry");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+	}
+
+	private ArangoExecutorAsync(final ArangoExecutorAsync cluster, final VstCommunicationAsync communication,
+		final ArangoSerialization util) {
+		super(util, cluster.documentCache());
+		this.communication = communication;
+		maxBatchDocuments = cluster.maxBatchDocuments;
+		maxBatchBytes = cluster.maxBatchBytes;
+		documentSerializer = cluster.documentSerializer;
+		multiDocumentDeserializer = cluster.multiDocumentDeserializer;
+		metrics = cluster.metrics;
+		retry = cluster.retry;
+		interceptors = cluster.interceptors;
+		ownsScheduler = false;
+		scheduler = cluster.scheduler;
+	}
+
+	/**
+	 * Creates the executor of a connection group, which sends its requests with the given communication and shares
+	 * everything else, including the retry budget and scheduler, with this executor.
+	 * 
+	 * @param communication
+	 *            communication of the connection group, sharing the cluster services of {@link #communication()}
+	 * @param util
+	 *            serialization of the driver
+	 * @return executor of the connection group
+	 */
+	public ArangoExecutorAsync connectionGroup(
+		final VstCommunicationAsync communication,
+		final ArangoSerialization util) {
+		return new ArangoExecutorAsync(this, communication, util);
+	}
+
+	/**
+	 * @return the communication the requests are sent with
+	 */
+	public VstCommunicationAsync communication() {
+		return communication;
+	}
+
+	/**
+	 * @return maximum number of documents sent in one multi-document request, or null if unlimited
+	 */
+	public Integer maxBatchDocuments() {
+		return maxBatchDocuments;
+	}
+
+	/**
+	 * @return maximum size in bytes of the documents sent in one multi-document request, or null if unlimited
+	 */
+	public Integer maxBatchBytes() {
+		return maxBatchBytes;
+	}
+
+	public DocumentSerializer documentSerializer() {
+		return documentSerializer;
+	}
+
+	/**
+	 * @return the executor for blocking operations like writing to a file, null if they run on the calling thread
+	 */
+	public Executor blockingExecutor() {
+		return communication.blockingExecutor();
 	}
 
 	public <T> CompletableFuture<T> execute(final Request request, final Type type) {
@@ -48,15 +240,68 @@ public class ArangoExecutorAsync extends ArangoExecutor {
 	}
 
 	public <T> CompletableFuture<T> execute(final Request request, final ResponseDeserializer<T> responseDeserializer) {
+		final long start = start();
+		final Object[] contexts = beforeSend(request);
 		final CompletableFuture<T> result = new CompletableFuture<>();
-		communication.execute(request).whenComplete((response, ex) -> {
+		send(request).whenComplete((response, ex) -> {
+			if (response != null) {
+				afterReceive(request, response, contexts, start);
+				try {
+					final T value = responseDeserializer.deserialize(response);
+					recordOperation(request, start, true);
+					result.complete(value);
+				} catch (final VPackException | ArangoDBException e) {
+					failed(request, e, contexts, start);
+					result.completeExceptionally(e);
+				}
+			} else if (ex != null) {
+				failed(request, ex, contexts, start);
+				result.completeExceptionally(ex);
+			} else {
+				result.cancel(true);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Like {@link #execute(Request, ResponseDeserializer)} but for responses with an array body of multiple documents.
+	 * Large responses are deserialized in parallel, off the thread which received the response. Every chunk of the
+	 * response is deserialized with the deserializer created for its range of documents.
+	 */
+	public <E> CompletableFuture<MultiDocumentEntity<E>> executeMultiDocument(
+		final Request request,
+		final ChunkDeserializer<E> responseDeserializer) {
+		final long start = start();
+		final Object[] contexts = beforeSend(request);
+		final CompletableFuture<MultiDocumentEntity<E>> result = new CompletableFuture<>();
+		send(request).whenComplete((response, ex) -> {
 			if (response != null) {
+				afterReceive(request, response, contexts, start);
+				if (multiDocumentDeserializer.isParallel(response)) {
+					multiDocumentDeserializer.deserialize(response, responseDeserializer).whenComplete((entity, e) -> {
+						if (entity != null) {
+							recordOperation(request, start, true);
+							result.complete(entity);
+						} else {
+							failed(request, e, contexts, start);
+							result.completeExceptionally(e);
+						}
+					});
+					return;
+				}
 				try {
-					result.complete(responseDeserializer.deserialize(response));
+					final VPackSlice body = response.getBody();
+					final MultiDocumentEntity<E> value = responseDeserializer
+							.chunk(0, body != null && body.isArray() ? body.getLength() : 0).deserialize(response);
+					recordOperation(request, start, true);
+					result.complete(value);
 				} catch (final VPackException | ArangoDBException e) {
+					failed(request, e, contexts, start);
 					result.completeExceptionally(e);
 				}
 			} else if (ex != null) {
+				failed(request, ex, contexts, start);
 				result.completeExceptionally(ex);
 			} else {
 				result.cancel(true);
@@ -65,7 +310,107 @@ public class ArangoExecutorAsync extends ArangoExecutor {
 		return result;
 	}
 
+	private CompletableFuture<Response> send(final Request request) {
+		if (retry == null || !retry.start(request)) {
+			return communication.execute(request);
+		}
+		final CompletableFuture<Response> result = new CompletableFuture<>();
+		send(request, result, 1);
+		return result;
+	}
+
+	private void send(final Request request, final CompletableFuture<Response> result, final int attempt) {
+		CompletableFuture<Response> response;
+		try {
+			response = communication.execute(request);
+		} catch (final RuntimeException e) {
+			response = new CompletableFuture<>();
+			response.completeExceptionally(e);
+		}
+		response.whenComplete((r, ex) -> {
+			if (r != null) {
+				result.complete(r);
+			} else if (ex != null && retry.shouldRetry(attempt, ex)) {
+				if (metrics != null) {
+					metrics.requestRetried(request, attempt);
+				}
+				try {
+					scheduler.schedule(() -> send(request, result, attempt + 1), retry.backoff(attempt),
+						TimeUnit.NANOSECONDS);
+				} catch (final RejectedExecutionException e) {
+					// disconnected meanwhile
+					result.completeExceptionally(ex);
+				}
+			} else if (ex != null) {
+				result.completeExceptionally(ex);
+			} else {
+				result.cancel(true);
+			}
+		});
+	}
+
+	private long start() {
+		return metrics != null || interceptors.length > 0 ? System.nanoTime() : 0L;
+	}
+
+	private Object[] beforeSend(final Request request) {
+		if (interceptors.length == 0) {
+			return null;
+		}
+		final Object[] contexts = new Object[interceptors.length];
+		for (int i = 0; i < interceptors.length; i++) {
+			try {
+				contexts[i] = interceptors[i].beforeSend(request);
+			} catch (final RuntimeException e) {
+				LOGGER.warn(e.getMessage(), e);
+			}
+		}
+		return contexts;
+	}
+
+	private void afterReceive(
+		final Request request,
+		final Response response,
+		final Object[] contexts,
+		final long start) {
+		if (contexts == null) {
+			return;
+		}
+		final long duration = System.nanoTime() - start;
+		for (int i = 0; i < interceptors.length; i++) {
+			try {
+				interceptors[i].afterReceive(request, response, contexts[i], duration);
+			} catch (final RuntimeException e) {
+				LOGGER.warn(e.getMessage(), e);
+			}
+		}
+	}
+
+	private void failed(final Request request, final Throwable error, final Object[] contexts, final long start) {
+		recordOperation(request, start, false);
+		if (contexts == null) {
+			return;
+		}
+		final long duration = System.nanoTime() - start;
+		for (int i = 0; i < interceptors.length; i++) {
+			try {
+				interceptors[i].onError(request, error, contexts[i], duration);
+			} catch (final RuntimeException e) {
+				LOGGER.warn(e.getMessage(), e);
+			}
+		}
+	}
+
+	private void recordOperation(final Request request, final long start, final boolean success) {
+		if (metrics != null) {
+			metrics.operationCompleted(request, System.nanoTime() - start, success);
+		}
+	}
+
 	public void disconnect() {
+		if (scheduler != null && ownsScheduler) {
+			scheduler.shutdownNow();
+		}
 		communication.disconnect();
 	}
 }
@@ -0,0 +1,169 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.arangodb.entity.DocumentBulkEntity;
+import com.arangodb.entity.MultiDocumentEntity;
+
+/**
+ * Cuts a stream of documents into batches and sends them as multi-document requests. Up to
+ * <code>maxPendingBatches</code> requests are in flight at the same time, a new batch is taken from the stream as soon
+ * as a response arrives. The results of every batch are passed to the consumer and not retained afterwards.
+ * <p>
+ * Responses are handled on the given executor, without one on the thread which received the response. The stream is
+ * read by one thread at a time: a response which arrives while another thread takes the next batch leaves sending a
+ * further batch to that thread, which also keeps batches which complete immediately from recursing.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentBulkWriter<T, E> {
+
+	private final Iterator<? extends T> values;
+	private final int batchSize;
+	private final int maxPendingBatches;
+	private final Function<List<T>, CompletableFuture<MultiDocumentEntity<E>>> execute;
+	private final Consumer<MultiDocumentEntity<E>> consumer;
+	private final Executor executor;
+	// number of batches to send, only the thread which increments it from 0 sends them
+	private final AtomicInteger requested;
+	private final CompletableFuture<DocumentBulkEntity> result;
+	private final DocumentBulkEntity entity;
+	private int pending;
+	private boolean exhausted;
+
+	public DocumentBulkWriter(final Iterator<? extends T> values, final int batchSize, final int maxPendingBatches,
+		final Function<List<T>, CompletableFuture<MultiDocumentEntity<E>>> execute,
+		final Consumer<MultiDocumentEntity<E>> consumer, final Executor executor) {
+		super();
+		this.values = values;
+		this.batchSize = Math.max(1, batchSize);
+		this.maxPendingBatches = Math.max(1, maxPendingBatches);
+		this.execute = execute;
+		this.consumer = consumer;
+		this.executor = executor;
+		requested = new AtomicInteger();
+		result = new CompletableFuture<>();
+		entity = new DocumentBulkEntity();
+	}
+
+	public CompletableFuture<DocumentBulkEntity> execute() {
+		requested.incrementAndGet();
+		int started = 0;
+		while (started < maxPendingBatches && sendNext()) {
+			started++;
+		}
+		sendRequested();
+		return result;
+	}
+
+	private void sendRequested() {
+		while (requested.decrementAndGet() > 0) {
+			sendNext();
+		}
+	}
+
+	private boolean sendNext() {
+		final List<T> batch;
+		synchronized (this) {
+			if (result.isDone()) {
+				return false;
+			}
+			try {
+				batch = nextBatch();
+			} catch (final RuntimeException e) {
+				result.completeExceptionally(e);
+				return false;
+			}
+			if (batch.isEmpty()) {
+				if (pending == 0) {
+					result.complete(entity);
+				}
+				return false;
+			}
+			pending++;
+			entity.setBatches(entity.getBatches() + 1);
+		}
+		final CompletableFuture<MultiDocumentEntity<E>> future;
+		try {
+			future = execute.apply(batch);
+		} catch (final RuntimeException e) {
+			result.completeExceptionally(e);
+			return false;
+		}
+		if (executor != null) {
+			future.whenCompleteAsync(this::batchCompleted, executor);
+		} else {
+			future.whenComplete(this::batchCompleted);
+		}
+		return true;
+	}
+
+	private List<T> nextBatch() {
+		final List<T> batch = new ArrayList<>(exhausted ? 0 : batchSize);
+		while (!exhausted && batch.size() < batchSize) {
+			if (values.hasNext()) {
+				batch.add(values.next());
+			} else {
+				exhausted = true;
+			}
+		}
+		return batch;
+	}
+
+	private void batchCompleted(final MultiDocumentEntity<E> documents, final Throwable ex) {
+		synchronized (this) {
+			pending--;
+			if (ex != null) {
+				result.completeExceptionally(ex);
+				return;
+			}
+			if (documents.getDocuments() != null) {
+				entity.setDocuments(entity.getDocuments() + documents.getDocuments().size());
+			}
+			if (documents.getErrors() != null) {
+				entity.setErrors(entity.getErrors() + documents.getErrors().size());
+			}
+			if (consumer != null) {
+				try {
+					consumer.accept(documents);
+				} catch (final RuntimeException e) {
+					result.completeExceptionally(e);
+					return;
+				}
+			}
+		}
+		if (requested.getAndIncrement() == 0) {
+			sendNext();
+			sendRequested();
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.arangodb.DocumentExportException;
+import com.arangodb.entity.CursorEntity;
+import com.arangodb.entity.DocumentExportEntity;
+import com.arangodb.model.DocumentExportOptions.Format;
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.velocypack.VPackSlice;
+
+/**
+ * Writes the batches of a cursor to a channel without deserializing the documents into POJOs. The next batch is
+ * requested from the server before the current one is written, so that the network and the disk are busy at the same
+ * time. The batches are written on the given executor, without one on the thread which received the batch. A failed
+ * export completes with a {@link DocumentExportException} holding the documents written so far.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentExporter {
+
+	private static final byte NEW_LINE = '\n';
+	private static final String KEY = "_key";
+
+	private final ArangoSerialization util;
+	private final WritableByteChannel channel;
+	private final Format format;
+	private final Function<String, CompletableFuture<CursorEntity>> next;
+	private final Function<String, CompletableFuture<Void>> close;
+	private final Executor executor;
+	private final CompletableFuture<DocumentExportEntity> result;
+	private final DocumentExportEntity entity;
+	private final long start;
+
+	public DocumentExporter(final ArangoSerialization util, final WritableByteChannel channel, final Format format,
+		final Function<String, CompletableFuture<CursorEntity>> next,
+		final Function<String, CompletableFuture<Void>> close, final Executor executor) {
+		super();
+		this.util = util;
+		this.channel = channel;
+		this.format = format != null ? format : Format.JSON;
+		this.next = next;
+		this.close = close;
+		this.executor = executor;
+		result = new CompletableFuture<>();
+		entity = new DocumentExportEntity();
+		start = System.currentTimeMillis();
+	}
+
+	public CompletableFuture<DocumentExportEntity> export(final CompletableFuture<CursorEntity> cursor) {
+		consumeWhenDone(cursor);
+		return result;
+	}
+
+	private void consumeWhenDone(final CompletableFuture<CursorEntity> cursor) {
+		if (executor != null) {
+			cursor.whenCompleteAsync(this::consume, executor);
+		} else {
+			cursor.whenComplete(this::consume);
+		}
+	}
+
+	private void consume(final CursorEntity batch, final Throwable error) {
+		CursorEntity cursor = batch;
+		Throwable ex = error;
+		// batches which already arrived are written in this loop instead of recursively
+		while (true) {
+			if (ex != null) {
+				fail(Failures.unwrap(ex));
+				return;
+			}
+			final CompletableFuture<CursorEntity> prefetch = hasMore(cursor) ? next.apply(cursor.getId()) : null;
+			try {
+				write(cursor.getResult());
+			} catch (final IOException | RuntimeException e) {
+				if (prefetch != null) {
+					// a cursor without more results is already deleted by the server
+					prefetch.thenAccept(c -> {
+						if (hasMore(c)) {
+							close.apply(c.getId());
+						}
+					});
+				}
+				fail(e);
+				return;
+			}
+			if (prefetch == null) {
+				entity.setExecutionTime(System.currentTimeMillis() - start);
+				result.complete(entity);
+				return;
+			}
+			if (executor != null || !prefetch.isDone()) {
+				consumeWhenDone(prefetch);
+				return;
+			}
+			try {
+				cursor = prefetch.join();
+			} catch (final CompletionException | CancellationException e) {
+				ex = e;
+			}
+		}
+	}
+
+	private static boolean hasMore(final CursorEntity cursor) {
+		return cursor.getHasMore() != null && cursor.getHasMore();
+	}
+
+	private void fail(final Throwable ex) {
+		entity.setExecutionTime(System.currentTimeMillis() - start);
+		result.completeExceptionally(new DocumentExportException(ex, entity));
+	}
+
+	private void write(final VPackSlice batch) throws IOException {
+		if (batch == null || !batch.isArray()) {
+			return;
+		}
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		String lastKey = null;
+		long count = 0;
+		for (final Iterator<VPackSlice> iterator = batch.arrayIterator(); iterator.hasNext();) {
+			final VPackSlice document = iterator.next();
+			if (format == Format.VPACK) {
+				final int size = document.getByteSize();
+				out.write(size);
+				out.write(size >>> 8);
+				out.write(size >>> 16);
+				out.write(size >>> 24);
+				out.write(document.getBuffer(), document.getStart(), size);
+			} else {
+				final String json = util.deserialize(document, String.class);
+				out.write(json.getBytes(StandardCharsets.UTF_8));
+				out.write(NEW_LINE);
+			}
+			final VPackSlice key = document.get(KEY);
+			if (key.isString()) {
+				lastKey = key.getAsString();
+			}
+			count++;
+		}
+		final ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		entity.setDocuments(entity.getDocuments() + count);
+		entity.setBytes(entity.getBytes() + buffer.limit());
+		if (lastKey != null) {
+			entity.setLastKey(lastKey);
+		}
+	}
+
+}
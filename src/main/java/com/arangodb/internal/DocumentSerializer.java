@@ -0,0 +1,90 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.arangodb.util.ArangoSerialization;
+import com.arangodb.util.ArangoSerializer;
+import com.arangodb.velocypack.VPackSlice;
+
+/**
+ * Serializes the documents of a multi-document request into one slice per document. Large lists are cut into chunks
+ * which are serialized in parallel on a {@link ForkJoinPool}.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentSerializer {
+
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final Integer parallelThreshold;
+	private final ForkJoinPool pool;
+
+	public DocumentSerializer(final Integer parallelThreshold, final ForkJoinPool pool) {
+		super();
+		this.parallelThreshold = parallelThreshold;
+		this.pool = pool != null ? pool : ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * @return true if a list of the given size is serialized in parallel
+	 */
+	public boolean isParallel(final int size) {
+		return parallelThreshold != null && size > 1 && size >= parallelThreshold;
+	}
+
+	public List<VPackSlice> serialize(
+		final ArangoSerialization util,
+		final List<?> documents,
+		final ArangoSerializer.Options options) {
+		final List<VPackSlice> slices = new ArrayList<>(documents.size());
+		if (!isParallel(documents.size())) {
+			addElements(util.serialize(documents, options), slices);
+			return slices;
+		}
+		final int chunks = Math.min(documents.size(), pool.getParallelism() * CHUNKS_PER_THREAD);
+		final int chunkSize = (documents.size() + chunks - 1) / chunks;
+		final List<ForkJoinTask<VPackSlice>> tasks = new ArrayList<>(chunks);
+		for (int start = 0; start < documents.size(); start += chunkSize) {
+			final List<?> chunk = documents.subList(start, Math.min(start + chunkSize, documents.size()));
+			final Callable<VPackSlice> task = () -> util.serialize(chunk, options);
+			tasks.add(pool.submit(task));
+		}
+		for (final ForkJoinTask<VPackSlice> task : tasks) {
+			addElements(task.join(), slices);
+		}
+		return slices;
+	}
+
+	private static void addElements(final VPackSlice array, final List<VPackSlice> slices) {
+		for (final Iterator<VPackSlice> iterator = array.arrayIterator(); iterator.hasNext();) {
+			slices.add(iterator.next());
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import com.arangodb.ArangoDBException;
+
+/**
+ * Classifies failed requests by whether the server answered them.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public final class Failures {
+
+	private Failures() {
+		super();
+	}
+
+	/**
+	 * @return the given error without its {@link CompletionException} wrapper
+	 */
+	public static Throwable unwrap(final Throwable error) {
+		return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+	}
+
+	/**
+	 * @return the response code of the error response the server answered with, null if the request failed without
+	 *         a response, e.g. because the connection was lost
+	 */
+	public static Integer responseCode(final Throwable error) {
+		final Throwable cause = unwrap(error);
+		return cause instanceof ArangoDBException ? ((ArangoDBException) cause).getResponseCode() : null;
+	}
+
+	/**
+	 * @return whether the server answered the request with an error response
+	 */
+	public static boolean isAnswered(final Throwable error) {
+		return responseCode(error) != null;
+	}
+
+	/**
+	 * @return whether the request failed because of the connection, which also applies to {@link ArangoDBException}s
+	 *         wrapping an {@link IOException}
+	 */
+	public static boolean isConnectionFailure(final Throwable error) {
+		if (isAnswered(error)) {
+			return false;
+		}
+		for (Throwable cause = unwrap(error); cause != null; cause = cause.getCause()) {
+			if (cause instanceof IOException || cause instanceof TimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
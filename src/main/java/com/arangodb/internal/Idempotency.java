@@ -0,0 +1,106 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.regex.Pattern;
+
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.exception.VPackException;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+
+/**
+ * Classifies requests by whether they can safely be sent more than once.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public final class Idempotency {
+
+	private static final String PATH_API_DOCUMENT = "/_api/document/";
+	private static final String PATH_API_CURSOR = "/_api/cursor";
+	private static final Pattern DATA_MODIFICATION = Pattern.compile("\\b(INSERT|UPDATE|REPLACE|REMOVE|UPSERT)\\b",
+		Pattern.CASE_INSENSITIVE);
+
+	private Idempotency() {
+		super();
+	}
+
+	/**
+	 * @return whether the request reads one or multiple documents or runs an AQL query without data modification
+	 */
+	public static boolean isDocumentRead(final Request request) {
+		final RequestType type = request.getRequestType();
+		final String path = request.getRequest();
+		switch (type) {
+		case GET:
+			return path.startsWith(PATH_API_DOCUMENT);
+		case PUT:
+			return path.startsWith(PATH_API_DOCUMENT) && isQueryParam(request, "onlyget", "true");
+		case POST:
+			return PATH_API_CURSOR.equals(path) && isReadOnlyQuery(request.getBody());
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * @return whether the request does not modify data on the server
+	 */
+	public static boolean isRead(final Request request) {
+		final RequestType type = request.getRequestType();
+		return type == RequestType.GET || type == RequestType.HEAD || isDocumentRead(request);
+	}
+
+	/**
+	 * @return whether sending the request again after it was already executed leaves the same state on the server:
+	 *         reads except queries and replacing documents without revision precondition. A query which was executed
+	 *         but not answered leaves its cursor on the server, which a second execution would not delete.
+	 */
+	public static boolean isIdempotent(final Request request) {
+		final String path = request.getRequest();
+		if (request.getRequestType() == RequestType.POST && PATH_API_CURSOR.equals(path)) {
+			return false;
+		}
+		if (isRead(request)) {
+			return true;
+		}
+		return request.getRequestType() == RequestType.PUT && path.startsWith(PATH_API_DOCUMENT)
+				&& !request.getHeaderParam().containsKey("If-Match") && !isQueryParam(request, "ignoreRevs", "false");
+	}
+
+	private static boolean isQueryParam(final Request request, final String name, final String value) {
+		return value.equals(String.valueOf(request.getQueryParam().get(name)));
+	}
+
+	private static boolean isReadOnlyQuery(final VPackSlice body) {
+		if (body == null) {
+			return false;
+		}
+		try {
+			final VPackSlice query = body.get("query");
+			return query.isString() && !DATA_MODIFICATION.matcher(query.getAsString()).find();
+		} catch (final VPackException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.arangodb.entity.MultiDocumentEntity;
+import com.arangodb.internal.ArangoExecutor.ResponseDeserializer;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocystream.Response;
+
+/**
+ * Deserializes the array body of a large multi-document response in parallel. The array is cut into chunks, every
+ * chunk is wrapped into a response of its own and passed to the response deserializer of its range of documents on the
+ * executor. The chunks share the buffer of the response. The results are merged in their original order.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class MultiDocumentDeserializer {
+
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final Integer parallelThreshold;
+	private final Executor executor;
+	private final int chunks;
+
+	/**
+	 * Creates the response deserializer for the documents {@code from} (inclusive) to {@code to} (exclusive) of a
+	 * multi-document request, e.g. with the sub list of the request values these documents belong to.
+	 */
+	public interface ChunkDeserializer<E> {
+		ResponseDeserializer<MultiDocumentEntity<E>> chunk(int from, int to);
+	}
+
+	public MultiDocumentDeserializer(final Integer parallelThreshold, final Executor executor) {
+		super();
+		this.parallelThreshold = parallelThreshold;
+		this.executor = executor != null ? executor : ForkJoinPool.commonPool();
+		chunks = (executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism()
+				: ForkJoinPool.commonPool().getParallelism()) * CHUNKS_PER_THREAD;
+	}
+
+	/**
+	 * @return true if the body of the given response is deserialized in parallel
+	 */
+	public boolean isParallel(final Response response) {
+		if (parallelThreshold == null) {
+			return false;
+		}
+		final VPackSlice body = response.getBody();
+		return body != null && body.isArray() && body.getLength() > 1 && body.getLength() >= parallelThreshold;
+	}
+
+	public <E> CompletableFuture<MultiDocumentEntity<E>> deserialize(
+		final Response response,
+		final ChunkDeserializer<E> deserializer) {
+		final CompletableFuture<MultiDocumentEntity<E>> result = new CompletableFuture<>();
+		try {
+			executor.execute(() -> deserialize(response, deserializer, result));
+		} catch (final RejectedExecutionException e) {
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	private <E> void deserialize(
+		final Response response,
+		final ChunkDeserializer<E> deserializer,
+		final CompletableFuture<MultiDocumentEntity<E>> result) {
+		try {
+			final VPackSlice body = response.getBody();
+			final List<VPackSlice> documents = new ArrayList<>();
+			for (final Iterator<VPackSlice> iterator = body.arrayIterator(); iterator.hasNext();) {
+				documents.add(iterator.next());
+			}
+			final int chunkSize = (documents.size() + chunks - 1) / chunks;
+			final List<CompletableFuture<MultiDocumentEntity<E>>> batches = new ArrayList<>();
+			for (int from = 0; from < documents.size(); from += chunkSize) {
+				final int to = Math.min(from + chunkSize, documents.size());
+				final ResponseDeserializer<MultiDocumentEntity<E>> chunkDeserializer = deserializer.chunk(from, to);
+				final Response chunk = chunkResponse(response, new ChunkSlice(body, documents.subList(from, to)));
+				batches.add(CompletableFuture.supplyAsync(() -> chunkDeserializer.deserialize(chunk), executor));
+			}
+			MultiDocumentSplitter.merge(batches).whenComplete((entity, ex) -> {
+				if (entity != null) {
+					result.complete(entity);
+				} else {
+					result.completeExceptionally(ex);
+				}
+			});
+		} catch (final RuntimeException e) {
+			result.completeExceptionally(e);
+		}
+	}
+
+	private static Response chunkResponse(final Response response, final VPackSlice body) {
+		final Response chunk = new Response();
+		chunk.setResponseCode(response.getResponseCode());
+		chunk.setBody(body);
+		return chunk;
+	}
+
+	/**
+	 * A range of the documents of an array slice, backed by the buffer of the array. The multi-document response
+	 * deserializers only iterate the array, so iteration and length are limited to the range.
+	 */
+	private static class ChunkSlice extends VPackSlice {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<VPackSlice> documents;
+
+		public ChunkSlice(final VPackSlice array, final List<VPackSlice> documents) {
+			super(array.getBuffer(), array.getStart());
+			this.documents = documents;
+		}
+
+		@Override
+		public Iterator<VPackSlice> arrayIterator() {
+			return documents.iterator();
+		}
+
+		@Override
+		public int getLength() {
+			return documents.size();
+		}
+
+		@Override
+		public int size() {
+			return documents.size();
+		}
+
+		@Override
+		public VPackSlice get(final int index) {
+			return documents.get(index);
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntToLongFunction;
+
+import com.arangodb.entity.ErrorEntity;
+import com.arangodb.entity.MultiDocumentEntity;
+
+/**
+ * Splits oversized multi-document requests into batches and merges the results of the batches in their original
+ * order.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class MultiDocumentSplitter {
+
+	private MultiDocumentSplitter() {
+		super();
+	}
+
+	/**
+	 * @param size
+	 *            number of documents
+	 * @param sizeOf
+	 *            serialized size of the document at the given index. Only called if maxBytes is set.
+	 * @param maxDocuments
+	 *            maximum number of documents per batch, can be null
+	 * @param maxBytes
+	 *            maximum size of the documents per batch, can be null. A single document exceeding this size forms a
+	 *            batch on its own.
+	 * @return the start index of every batch, followed by <code>size</code>
+	 */
+	public static List<Integer> split(
+		final int size,
+		final IntToLongFunction sizeOf,
+		final Integer maxDocuments,
+		final Integer maxBytes) {
+		final List<Integer> bounds = new ArrayList<>();
+		bounds.add(0);
+		int documents = 0;
+		long bytes = 0;
+		for (int i = 0; i < size; i++) {
+			final long documentSize = maxBytes != null ? sizeOf.applyAsLong(i) : 0;
+			if (documents > 0 && ((maxDocuments != null && documents >= maxDocuments)
+					|| (maxBytes != null && bytes + documentSize > maxBytes))) {
+				bounds.add(i);
+				documents = 0;
+				bytes = 0;
+			}
+			documents++;
+			bytes += documentSize;
+		}
+		bounds.add(size);
+		return bounds;
+	}
+
+	/**
+	 * @return the size of the given string as VelocyPack string value: its UTF-8 encoded length plus the 1 byte
+	 *         (short string) or 9 byte (long string) header
+	 */
+	public static long stringByteSize(final String value) {
+		long length = 0;
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+					&& Character.isLowSurrogate(value.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length + (length <= 126 ? 1 : 9);
+	}
+
+	/**
+	 * @return true if the given number of documents has to be checked by {@link #split}
+	 */
+	public static boolean isSplitRequired(final int size, final Integer maxDocuments, final Integer maxBytes) {
+		return size > 1 && ((maxDocuments != null && size > maxDocuments) || maxBytes != null);
+	}
+
+	public static <E> CompletableFuture<MultiDocumentEntity<E>> merge(
+		final List<CompletableFuture<MultiDocumentEntity<E>>> batches) {
+		if (batches.size() == 1) {
+			return batches.get(0);
+		}
+		return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[batches.size()])).thenApply(v -> {
+			final Collection<E> documents = new ArrayList<>();
+			final Collection<ErrorEntity> errors = new ArrayList<>();
+			final Collection<Object> documentsAndErrors = new ArrayList<>();
+			for (final CompletableFuture<MultiDocumentEntity<E>> batch : batches) {
+				final MultiDocumentEntity<E> entity = batch.join();
+				documents.addAll(entity.getDocuments());
+				errors.addAll(entity.getErrors());
+				documentsAndErrors.addAll(entity.getDocumentsAndErrors());
+			}
+			final MultiDocumentEntity<E> result = new MultiDocumentEntity<>();
+			result.setDocuments(documents);
+			result.setErrors(errors);
+			result.setDocumentsAndErrors(documentsAndErrors);
+			return result;
+		});
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.arangodb.model.RetryOptions;
+import com.arangodb.velocystream.Request;
+
+/**
+ * Decides which failed requests are retried and when, see {@link RetryOptions}. Only idempotent requests, see
+ * {@link Idempotency#isIdempotent(Request)}, are retried, after a lost connection or a response with code 503.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+class Retry {
+
+	private static final int DEFAULT_MAX_ATTEMPTS = 3;
+	private static final int DEFAULT_INITIAL_BACKOFF = 10;
+	private static final int DEFAULT_MAX_BACKOFF = 1000;
+	private static final double DEFAULT_BUDGET = 0.1;
+	private static final int BURST = 10;
+	private static final int SERVICE_UNAVAILABLE = 503;
+
+	private final int maxAttempts;
+	private final long initialBackoff;
+	private final long maxBackoff;
+	private final TokenBudget budget;
+
+	Retry(final RetryOptions options) {
+		super();
+		maxAttempts = options.getMaxAttempts() != null ? options.getMaxAttempts() : DEFAULT_MAX_ATTEMPTS;
+		initialBackoff = TimeUnit.MILLISECONDS.toNanos(
+			options.getInitialBackoff() != null ? options.getInitialBackoff() : DEFAULT_INITIAL_BACKOFF);
+		maxBackoff = TimeUnit.MILLISECONDS
+				.toNanos(options.getMaxBackoff() != null ? options.getMaxBackoff() : DEFAULT_MAX_BACKOFF);
+		budget = new TokenBudget(options.getBudget() != null ? options.getBudget() : DEFAULT_BUDGET, BURST, true);
+	}
+
+	/**
+	 * Called for every request, adds to the budget of retries.
+	 * 
+	 * @return whether the request may be retried
+	 */
+	boolean start(final Request request) {
+		if (!Idempotency.isIdempotent(request)) {
+			return false;
+		}
+		budget.deposit();
+		return true;
+	}
+
+	/**
+	 * @param attempt
+	 *            number of the failed attempt, starting with 1
+	 * @param error
+	 *            the failure
+	 * @return whether the request should be sent again, which is then deducted from the budget
+	 */
+	boolean shouldRetry(final int attempt, final Throwable error) {
+		return attempt < maxAttempts && isTransient(error) && budget.tryAcquire();
+	}
+
+	/**
+	 * @param attempt
+	 *            number of the failed attempt, starting with 1
+	 * @return random delay in nanoseconds before the next attempt, up to the exponential backoff ("full jitter")
+	 */
+	long backoff(final int attempt) {
+		final long bound = Math.min(maxBackoff, initialBackoff << Math.min(attempt - 1, 30));
+		return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0L;
+	}
+
+	static boolean isTransient(final Throwable error) {
+		final Integer responseCode = Failures.responseCode(error);
+		if (responseCode != null) {
+			return responseCode == SERVICE_UNAVAILABLE;
+		}
+		return Failures.isConnectionFailure(error);
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget of additional requests, like retries or hedged requests, which grows by a fixed share with every regular
+ * request. It caps the additional load at that share, plus a small burst.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class TokenBudget {
+
+	private static final long TOKEN = 1000;
+
+	private final long deposit;
+	private final long maxTokens;
+	private final AtomicLong tokens;
+
+	/**
+	 * @param ratio
+	 *            additional requests per regular request, e.g. 0.1 for 10%
+	 * @param burst
+	 *            maximum number of additional requests which can be saved up
+	 * @param full
+	 *            whether the burst is available from the start
+	 */
+	public TokenBudget(final double ratio, final int burst, final boolean full) {
+		super();
+		deposit = Math.round(ratio * TOKEN);
+		maxTokens = burst * TOKEN;
+		tokens = new AtomicLong(full ? maxTokens : 0L);
+	}
+
+	/**
+	 * Adds the share of a regular request to the budget
+	 */
+	public void deposit() {
+		long current = tokens.get();
+		while (current < maxTokens && !tokens.compareAndSet(current, Math.min(maxTokens, current + deposit))) {
+			current = tokens.get();
+		}
+	}
+
+	/**
+	 * @return whether the budget allows an additional request, which is then deducted from the budget
+	 */
+	public boolean tryAcquire() {
+		long current = tokens.get();
+		while (current >= TOKEN) {
+			if (tokens.compareAndSet(current, current - TOKEN)) {
+				return true;
+			}
+			current = tokens.get();
+		}
+		return false;
+	}
+
+}
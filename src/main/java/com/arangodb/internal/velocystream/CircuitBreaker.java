@@ -0,0 +1,165 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.metrics.ArangoMetrics;
+import com.arangodb.metrics.CircuitState;
+import com.arangodb.model.CircuitBreakerOptions;
+
+/**
+ * Circuit breaker of one host. The failure rate is a moving average over about the last
+ * {@link CircuitBreakerOptions#getMinimumRequests()} requests, so no lock is needed on the hot path.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+class CircuitBreaker {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	private static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+	private static final int DEFAULT_MINIMUM_REQUESTS = 20;
+	private static final int DEFAULT_OPEN_DURATION = 10000;
+
+	private final String host;
+	private final double failureRateThreshold;
+	private final int minimumRequests;
+	private final double weight;
+	private final long slowRequestNanos;
+	private final long openNanos;
+	private final ArangoMetrics metrics;
+	private final AtomicReference<CircuitState> state;
+	private final AtomicInteger requests;
+	private volatile double failureRate;
+	private volatile long openedAt;
+
+	CircuitBreaker(final String host, final CircuitBreakerOptions options, final ArangoMetrics metrics) {
+		super();
+		this.host = host;
+		failureRateThreshold = options.getFailureRateThreshold() != null ? options.getFailureRateThreshold()
+				: DEFAULT_FAILURE_RATE_THRESHOLD;
+		minimumRequests = Math.max(1,
+			options.getMinimumRequests() != null ? options.getMinimumRequests() : DEFAULT_MINIMUM_REQUESTS);
+		weight = 2.0 / (minimumRequests + 1);
+		slowRequestNanos = options.getSlowRequestThreshold() != null
+				? TimeUnit.MILLISECONDS.toNanos(options.getSlowRequestThreshold()) : Long.MAX_VALUE;
+		openNanos = TimeUnit.MILLISECONDS
+				.toNanos(options.getOpenDuration() != null ? options.getOpenDuration() : DEFAULT_OPEN_DURATION);
+		this.metrics = metrics;
+		state = new AtomicReference<>(CircuitState.CLOSED);
+		requests = new AtomicInteger();
+	}
+
+	CircuitState state() {
+		return state.get();
+	}
+
+	/**
+	 * @return whether the host receives requests
+	 */
+	boolean isClosed() {
+		return state.get() == CircuitState.CLOSED;
+	}
+
+	/**
+	 * Moves an open circuit whose open duration elapsed to half-open. The caller then has to send exactly one probe
+	 * to the host and report its outcome.
+	 * 
+	 * @return whether the caller may probe the host
+	 */
+	boolean tryHalfOpen() {
+		return state.get() == CircuitState.OPEN && System.nanoTime() - openedAt >= openNanos
+				&& transition(CircuitState.OPEN, CircuitState.HALF_OPEN);
+	}
+
+	/**
+	 * Records the outcome of a request to the host.
+	 * 
+	 * @param durationNanos
+	 *            time until the response was received
+	 * @param failed
+	 *            whether no response or a response with code 500 or higher was received
+	 */
+	void record(final long durationNanos, final boolean failed) {
+		final boolean failure = failed || durationNanos >= slowRequestNanos;
+		switch (state.get()) {
+		case HALF_OPEN:
+			transition(CircuitState.HALF_OPEN, failure ? CircuitState.OPEN : CircuitState.CLOSED);
+			break;
+		case CLOSED:
+			// racy read-modify-write, a lost update only delays the average slightly
+			final double rate = failureRate + ((failure ? 1.0 : 0.0) - failureRate) * weight;
+			failureRate = rate;
+			if (requests.get() < minimumRequests) {
+				requests.incrementAndGet();
+			} else if (rate >= failureRateThreshold) {
+				transition(CircuitState.CLOSED, CircuitState.OPEN);
+			}
+			break;
+		case OPEN:
+		default:
+			// late response of a request sent before the circuit opened
+			break;
+		}
+	}
+
+	/**
+	 * Opens the circuit, e.g. after a failed health check.
+	 */
+	void open() {
+		if (!transition(CircuitState.CLOSED, CircuitState.OPEN)) {
+			transition(CircuitState.HALF_OPEN, CircuitState.OPEN);
+		}
+	}
+
+	private boolean transition(final CircuitState from, final CircuitState to) {
+		if (state.get() != from) {
+			return false;
+		}
+		if (to == CircuitState.OPEN) {
+			openedAt = System.nanoTime();
+		}
+		if (!state.compareAndSet(from, to)) {
+			return false;
+		}
+		if (to == CircuitState.CLOSED) {
+			failureRate = 0.0;
+			requests.set(0);
+		}
+		if (to == CircuitState.OPEN) {
+			LOGGER.warn(String.format("Circuit of host %s opened", host));
+		} else if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(String.format("Circuit of host %s %s", host, to));
+		}
+		if (metrics != null) {
+			metrics.circuitStateChanged(host, to);
+		}
+		return true;
+	}
+
+}
@@ -21,9 +21,20 @@
 package com.arangodb.internal.velocystream;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.net.ssl.SSLContext;
 
@@ -32,6 +43,7 @@ import com.arangodb.internal.velocystream.internal.Chunk;
 import com.arangodb.internal.velocystream.internal.Connection;
 import com.arangodb.internal.velocystream.internal.Message;
 import com.arangodb.internal.velocystream.internal.MessageStore;
+import com.arangodb.metrics.ArangoMetrics;
 
 /**
  * @author Mark Vollmary
@@ -46,6 +58,8 @@ public class ConnectionAsync extends Connection {
 		private Integer timeout;
 		private Boolean useSsl;
 		private SSLContext sslContext;
+		private ArangoMetrics metrics;
+		private Executor writeExecutor;
 
 		public Builder(final HostHandler hostHandler, final MessageStore messageStore) {
 			super();
@@ -68,32 +82,238 @@ public class ConnectionAsync extends Connection {
 			return this;
 		}
 
+		public Builder metrics(final ArangoMetrics metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+
+		public Builder writeExecutor(final Executor writeExecutor) {
+			this.writeExecutor = writeExecutor;
+			return this;
+		}
+
 		public ConnectionAsync build() {
-			return new ConnectionAsync(hostHandler, timeout, useSsl, sslContext, messageStore);
+			return new ConnectionAsync(hostHandler, timeout, useSsl, sslContext, messageStore, metrics,
+					writeExecutor);
 		}
 	}
 
+	private static final AtomicInteger ID = new AtomicInteger();
+	private static final double LATENCY_WEIGHT = 0.2;
+	// chunks a thread calling write() writes at most before handing the rest to the write executor
+	private static final int CALLER_CHUNK_BUDGET = 16;
+
+	private final int id;
+	private final Lock writeLock;
+	private final AtomicInteger inFlight;
+	private final AtomicLong pendingBytes;
+	private final Queue<PendingWrite> writes;
+	private volatile long latency;
+	private volatile long lastUsed;
+	private final ArangoMetrics metrics;
+	private final Executor writeExecutor;
+	private final AtomicBoolean handedOff;
+
 	private ConnectionAsync(final HostHandler hostHandler, final Integer timeout, final Boolean useSsl,
-		final SSLContext sslContext, final MessageStore messageStore) {
+		final SSLContext sslContext, final MessageStore messageStore, final ArangoMetrics metrics,
+		final Executor writeExecutor) {
 		super(hostHandler, timeout, useSsl, sslContext, messageStore);
+		id = ID.incrementAndGet();
+		writeLock = new ReentrantLock();
+		inFlight = new AtomicInteger();
+		pendingBytes = new AtomicLong();
+		writes = new ConcurrentLinkedQueue<>();
+		lastUsed = System.nanoTime();
+		this.metrics = metrics;
+		this.writeExecutor = writeExecutor;
+		handedOff = new AtomicBoolean();
+	}
+
+	/**
+	 * @return id of the connection, unique within the JVM
+	 */
+	public int id() {
+		return id;
+	}
+
+	/**
+	 * @return number of messages sent on this connection which are waiting for a response, including messages
+	 *         waiting to be written
+	 */
+	public int inFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * @return size of the messages sent on this connection which are waiting for a response, including messages
+	 *         waiting to be written
+	 */
+	public long pendingBytes() {
+		return pendingBytes.get();
 	}
 
-	public synchronized CompletableFuture<Message> write(final Message message, final Collection<Chunk> chunks) {
+	/**
+	 * @return exponentially weighted moving average of the response times on this connection in nanoseconds, 0 if no
+	 *         response was received yet
+	 */
+	public long latency() {
+		return latency;
+	}
+
+	/**
+	 * @return value of {@link System#nanoTime()} when a message was last sent or received on this connection
+	 */
+	public long lastUsed() {
+		return lastUsed;
+	}
+
+	/**
+	 * Writes the given message. The chunks of concurrently written messages are interleaved round-robin, so a small
+	 * message only waits for one chunk of a large message instead of all of them. Whichever thread acquires the
+	 * {@link Lock} writes the pending chunks of all messages, the other threads return immediately. With a write
+	 * executor the calling thread writes at most {@value #CALLER_CHUNK_BUDGET} chunks and leaves the rest to the
+	 * executor, so that a small request does not pay for writing a large one.
+	 */
+	public CompletableFuture<Message> write(final Message message, final Collection<Chunk> chunks) {
 		final CompletableFuture<Message> future = new CompletableFuture<>();
+		final long bytes = byteSize(message);
+		final long queued = System.nanoTime();
+		lastUsed = queued;
 		final FutureTask<Message> task = new FutureTask<>(new Callable<Message>() {
 			@Override
 			public Message call() throws Exception {
+				final int pending = inFlight.decrementAndGet();
+				pendingBytes.addAndGet(-bytes);
+				final long received = System.nanoTime();
+				lastUsed = received;
+				updateLatency(received - queued);
 				try {
-					future.complete(messageStore.get(message.getId()));
+					final Message response = messageStore.get(message.getId());
+					if (metrics != null) {
+						metrics.messageReceived(id, pending, byteSize(response));
+					}
+					future.complete(response);
 				} catch (final Exception e) {
 					future.completeExceptionally(e);
 				}
 				return null;
 			}
 		});
+		pendingBytes.addAndGet(bytes);
+		inFlight.incrementAndGet();
 		messageStore.storeMessage(message.getId(), task);
-		super.writeIntern(message, chunks);
+		writes.add(new PendingWrite(message, chunks, bytes, queued, task, future));
+		drain(writeExecutor != null ? CALLER_CHUNK_BUDGET : Integer.MAX_VALUE);
 		return future;
 	}
 
+	/**
+	 * @param budget
+	 *            maximum number of chunks to write, the remaining ones are handed to the write executor
+	 */
+	private void drain(final int budget) {
+		int remaining = budget;
+		// checked again after unlocking, a message added while the lock was held may not have been seen
+		while (!writes.isEmpty() && writeLock.tryLock()) {
+			try {
+				PendingWrite write;
+				while (remaining > 0 && (write = writes.poll()) != null) {
+					remaining--;
+					if (write.writeNext()) {
+						writes.add(write);
+					}
+				}
+			} finally {
+				writeLock.unlock();
+			}
+			if (remaining == 0 && !writes.isEmpty()) {
+				handOff();
+				return;
+			}
+		}
+	}
+
+	private void handOff() {
+		// one pending hand-off is enough, it writes until the queue is empty
+		if (!handedOff.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			writeExecutor.execute(() -> {
+				handedOff.set(false);
+				drain(Integer.MAX_VALUE);
+			});
+		} catch (final RejectedExecutionException e) {
+			handedOff.set(false);
+			drain(Integer.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * A message whose chunks are not yet all written
+	 */
+	private class PendingWrite {
+		private final Message message;
+		private final Collection<Chunk> chunks;
+		private final Iterator<Chunk> iterator;
+		private final long bytes;
+		private final long queued;
+		private final FutureTask<Message> task;
+		private final CompletableFuture<Message> future;
+		private boolean started;
+
+		private PendingWrite(final Message message, final Collection<Chunk> chunks, final long bytes,
+			final long queued, final FutureTask<Message> task, final CompletableFuture<Message> future) {
+			super();
+			this.message = message;
+			this.chunks = chunks;
+			iterator = chunks.iterator();
+			this.bytes = bytes;
+			this.queued = queued;
+			this.task = task;
+			this.future = future;
+		}
+
+		/**
+		 * Writes the next chunk of the message
+		 * 
+		 * @return whether chunks are left
+		 */
+		private boolean writeNext() {
+			try {
+				if (chunks.size() == 1) {
+					writeIntern(message, chunks);
+					iterator.next();
+				} else {
+					writeIntern(message, Collections.singletonList(iterator.next()));
+				}
+			} catch (final RuntimeException e) {
+				// no response will arrive, keep the counters used for choosing a connection accurate
+				if (task.cancel(false)) {
+					inFlight.decrementAndGet();
+					pendingBytes.addAndGet(-bytes);
+				}
+				future.completeExceptionally(e);
+				return false;
+			}
+			if (!started) {
+				started = true;
+				if (metrics != null) {
+					metrics.messageSent(id, inFlight.get(), System.nanoTime() - queued, bytes, chunks.size());
+				}
+			}
+			return iterator.hasNext();
+		}
+	}
+
+	private void updateLatency(final long sample) {
+		// racy read-modify-write, a lost update only delays the average slightly
+		final long current = latency;
+		latency = current == 0 ? sample : current + (long) ((sample - current) * LATENCY_WEIGHT);
+	}
+
+	private static long byteSize(final Message message) {
+		return message.getHead().getByteSize() + (message.getBody() != null ? message.getBody().getByteSize() : 0);
+	}
+
 }
@@ -0,0 +1,391 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.entity.LoadBalancingStrategy;
+import com.arangodb.internal.DefaultHostHandler;
+import com.arangodb.internal.Host;
+import com.arangodb.internal.HostHandler;
+import com.arangodb.internal.velocystream.internal.ConnectionPool;
+import com.arangodb.metrics.ArangoMetrics;
+import com.arangodb.model.CircuitBreakerOptions;
+import com.arangodb.model.ConnectionPoolOptions;
+
+/**
+ * Pool of {@link ConnectionAsync}s. With {@link LoadBalancingStrategy#NONE} all connections fail over between the
+ * hosts, otherwise every host gets its own connections and the requests are distributed across the hosts by the
+ * {@link LoadBalancingStrategy}. Hosts whose circuit breaker is open are skipped. The hosts can be replaced at
+ * runtime, see {@link #updateHosts(Collection)}. The pools of connection groups (see
+ * {@link #group(Integer, HostHandler, Function)}) have their own connections, but follow the hosts and share the
+ * circuit breakers of the pool they were created from.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class ConnectionPoolAsync extends ConnectionPool<ConnectionAsync> {
+
+	private static final int DEFAULT_MAX_CONNECTIONS = 1;
+	private static final long RETIRE_TIMEOUT = TimeUnit.MINUTES.toNanos(1);
+
+	private final int maxConnections;
+	private final ConnectionPoolOptions elastic;
+	private final LoadBalancingStrategy strategy;
+	private final CircuitBreakerOptions circuitBreaker;
+	private final ArangoMetrics metrics;
+	private final Function<HostHandler, ConnectionAsync> connectionFactory;
+	private volatile List<HostPool> hostPools;
+	private final List<HostPool> retired;
+	private final AtomicInteger next;
+	private final ConnectionPoolAsync cluster;
+	private final List<ConnectionPoolAsync> groups;
+
+	/**
+	 * @param maxConnections
+	 *            maximum number of connections per host
+	 * @param elastic
+	 *            options of an elastic number of connections per host, null to open connections up to the maximum
+	 * @param strategy
+	 *            strategy to distribute the requests across the hosts
+	 * @param hostHandler
+	 *            host handler of the connections with {@link LoadBalancingStrategy#NONE}
+	 * @param hosts
+	 *            hosts to distribute the requests across
+	 * @param circuitBreaker
+	 *            options of the circuit breaker per host, null to disable circuit breaking
+	 * @param metrics
+	 *            receiver of circuit state changes, or null
+	 * @param connectionFactory
+	 *            creates a connection using the given host handler
+	 */
+	public ConnectionPoolAsync(final Integer maxConnections, final ConnectionPoolOptions elastic,
+		final LoadBalancingStrategy strategy, final HostHandler hostHandler, final Collection<Host> hosts,
+		final CircuitBreakerOptions circuitBreaker, final ArangoMetrics metrics,
+		final Function<HostHandler, ConnectionAsync> connectionFactory) {
+		this(maxConnections, elastic, strategy, hostHandler, hosts, circuitBreaker, metrics, connectionFactory, null);
+	}
+
+	private ConnectionPoolAsync(final Integer maxConnections, final ConnectionPoolOptions elastic,
+		final LoadBalancingStrategy strategy, final HostHandler hostHandler, final Collection<Host> hosts,
+		final CircuitBreakerOptions circuitBreaker, final ArangoMetrics metrics,
+		final Function<HostHandler, ConnectionAsync> connectionFactory, final ConnectionPoolAsync cluster) {
+		super(maxConnections);
+		this.maxConnections = maxConnections != null ? Math.max(1, maxConnections) : DEFAULT_MAX_CONNECTIONS;
+		this.elastic = elastic;
+		this.strategy = strategy != null ? strategy : LoadBalancingStrategy.NONE;
+		this.circuitBreaker = circuitBreaker;
+		this.metrics = metrics;
+		this.connectionFactory = connectionFactory;
+		this.cluster = cluster;
+		groups = new CopyOnWriteArrayList<>();
+		final List<HostPool> pools = new ArrayList<>();
+		if (isBalancing() && hosts != null && !hosts.isEmpty()) {
+			for (final Host host : hosts) {
+				pools.add(createHostPool(host));
+			}
+		} else {
+			pools.add(new HostPool(null, () -> connectionFactory.apply(hostHandler), this.maxConnections, elastic, null,
+					metrics));
+		}
+		hostPools = Collections.unmodifiableList(pools);
+		retired = new CopyOnWriteArrayList<>();
+		next = new AtomicInteger();
+	}
+
+	private HostPool createHostPool(final Host host) {
+		final HostHandler handler = new DefaultHostHandler(Collections.singletonList(host));
+		return new HostPool(host, () -> connectionFactory.apply(handler), maxConnections, elastic,
+				cluster != null ? cluster.circuitBreaker(host)
+						: circuitBreaker != null ? new CircuitBreaker(HostPool.address(host), circuitBreaker, metrics)
+								: null,
+				metrics);
+	}
+
+	private CircuitBreaker circuitBreaker(final Host host) {
+		final String address = HostPool.address(host);
+		for (final HostPool hostPool : hostPools) {
+			if (hostPool.host() != null && HostPool.address(hostPool.host()).equals(address)) {
+				return hostPool.circuitBreaker();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the pool of a connection group, with its own connections to the hosts of this pool. It shares the
+	 * circuit breakers of this pool and follows its host list updates, idle connections are closed with the ones of
+	 * this pool.
+	 * 
+	 * @param maxConnections
+	 *            maximum number of connections per host
+	 * @param hostHandler
+	 *            host handler of the connections with {@link LoadBalancingStrategy#NONE}
+	 * @param connectionFactory
+	 *            creates a connection using the given host handler
+	 * @return the pool of the connection group
+	 */
+	ConnectionPoolAsync group(
+		final Integer maxConnections,
+		final HostHandler hostHandler,
+		final Function<HostHandler, ConnectionAsync> connectionFactory) {
+		final List<Host> hosts = new ArrayList<>();
+		for (final HostPool hostPool : hostPools) {
+			if (hostPool.host() != null) {
+				hosts.add(hostPool.host());
+			}
+		}
+		final ConnectionPoolAsync group = new ConnectionPoolAsync(maxConnections, elastic, strategy, hostHandler,
+				hosts, circuitBreaker, metrics, connectionFactory, this);
+		groups.add(group);
+		return group;
+	}
+
+	/**
+	 * @return whether every host has its own connections
+	 */
+	boolean isBalancing() {
+		return strategy != LoadBalancingStrategy.NONE;
+	}
+
+	/**
+	 * @return interval in nanoseconds in which {@link #closeIdleConnections()} has to be called, 0 if idle
+	 *         connections are kept
+	 */
+	long idleCheckInterval() {
+		if (elastic == null) {
+			return 0L;
+		}
+		final long idleTimeout = TimeUnit.MILLISECONDS
+				.toNanos(elastic.getIdleTimeout() != null ? elastic.getIdleTimeout() : HostPool.DEFAULT_IDLE_TIMEOUT);
+		return Math.max(idleTimeout / 2, TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	/**
+	 * Closes the connections of every host which were idle for longer than the idle timeout, down to the minimum
+	 * number of connections.
+	 */
+	void closeIdleConnections() {
+		for (final HostPool hostPool : hostPools) {
+			hostPool.closeIdle();
+		}
+		for (final ConnectionPoolAsync group : groups) {
+			group.closeIdleConnections();
+		}
+	}
+
+	@Override
+	public ConnectionAsync createConnection() {
+		return connection();
+	}
+
+	@Override
+	public ConnectionAsync connection() {
+		return select().connection();
+	}
+
+	@Override
+	public synchronized void disconnect() {
+		for (final HostPool hostPool : hostPools) {
+			hostPool.disconnect();
+		}
+		for (final HostPool hostPool : retired) {
+			hostPool.disconnect();
+		}
+		retired.clear();
+	}
+
+	List<HostPool> hostPools() {
+		return hostPools;
+	}
+
+	/**
+	 * Replaces the hosts of the load balancing strategy. Hosts which are still part of the given hosts keep their
+	 * connections. Removed hosts get no new requests, their connections are closed as soon as all their requests were
+	 * answered.
+	 * 
+	 * @param hosts
+	 *            the new hosts
+	 * @return whether the hosts changed
+	 */
+	synchronized boolean updateHosts(final Collection<Host> hosts) {
+		if (!isBalancing() || hosts.isEmpty()) {
+			return false;
+		}
+		final List<HostPool> current = hostPools;
+		final List<HostPool> pools = new ArrayList<>();
+		for (final Host host : hosts) {
+			HostPool pool = null;
+			for (final HostPool hostPool : current) {
+				if (HostPool.address(hostPool.host()).equals(HostPool.address(host))) {
+					pool = hostPool;
+					break;
+				}
+			}
+			pools.add(pool != null ? pool : createHostPool(host));
+		}
+		if (pools.equals(current)) {
+			return false;
+		}
+		hostPools = Collections.unmodifiableList(pools);
+		for (final HostPool hostPool : current) {
+			if (!pools.contains(hostPool)) {
+				hostPool.retire();
+				retired.add(hostPool);
+			}
+		}
+		closeRetired();
+		for (final ConnectionPoolAsync group : groups) {
+			group.updateHosts(hosts);
+		}
+		return true;
+	}
+
+	/**
+	 * Closes the connections of removed hosts which have no more requests waiting for a response, or which were
+	 * removed more than a minute ago.
+	 */
+	void closeRetired() {
+		for (final HostPool hostPool : retired) {
+			if (hostPool.inFlight() == 0 || System.nanoTime() - hostPool.retiredAt() > RETIRE_TIMEOUT) {
+				retired.remove(hostPool);
+				hostPool.disconnect();
+			}
+		}
+		for (final ConnectionPoolAsync group : groups) {
+			group.closeRetired();
+		}
+	}
+
+	/**
+	 * @return the host to send the next request to
+	 * @throws ArangoDBException
+	 *             if the circuits of all hosts are open
+	 */
+	HostPool select() throws ArangoDBException {
+		final List<HostPool> pools = hostPools;
+		for (final HostPool hostPool : pools) {
+			// an open circuit whose open duration elapsed gets the next request as probe
+			if (hostPool.tryHalfOpen()) {
+				return hostPool;
+			}
+		}
+		final HostPool hostPool;
+		switch (strategy) {
+		case RANDOM:
+			hostPool = firstAvailable(pools, ThreadLocalRandom.current().nextInt(pools.size()));
+			break;
+		case LEAST_IN_FLIGHT:
+			hostPool = leastInFlight(pools);
+			break;
+		case LATENCY_WEIGHTED:
+			hostPool = latencyWeighted(pools);
+			break;
+		case ROUND_ROBIN:
+		case NONE:
+		default:
+			hostPool = firstAvailable(pools, next.getAndIncrement() & Integer.MAX_VALUE);
+			break;
+		}
+		if (hostPool == null) {
+			throw new ArangoDBException("No host available, the circuits of all hosts are open");
+		}
+		return hostPool;
+	}
+
+	/**
+	 * @return an available host other than the given one, or the given one if there is no other
+	 */
+	HostPool selectOther(final HostPool exclude) {
+		final List<HostPool> pools = hostPools;
+		final int size = pools.size();
+		final int start = next.getAndIncrement() & Integer.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			final HostPool hostPool = pools.get((start + i) % size);
+			if (hostPool != exclude && hostPool.isAvailable()) {
+				return hostPool;
+			}
+		}
+		return exclude;
+	}
+
+	private static HostPool firstAvailable(final List<HostPool> pools, final int start) {
+		final int size = pools.size();
+		for (int i = 0; i < size; i++) {
+			final HostPool hostPool = pools.get((start + i) % size);
+			if (hostPool.isAvailable()) {
+				return hostPool;
+			}
+		}
+		return null;
+	}
+
+	private HostPool leastInFlight(final List<HostPool> pools) {
+		// start at a rotating position, so idle hosts share the load instead of the first one getting everything
+		final int start = next.getAndIncrement() & Integer.MAX_VALUE;
+		final int size = pools.size();
+		HostPool least = null;
+		int leastInFlight = Integer.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			final HostPool hostPool = pools.get((start + i) % size);
+			if (!hostPool.isAvailable()) {
+				continue;
+			}
+			final int inFlight = hostPool.inFlight();
+			if (inFlight < leastInFlight) {
+				least = hostPool;
+				leastInFlight = inFlight;
+			}
+		}
+		return least;
+	}
+
+	private HostPool latencyWeighted(final List<HostPool> pools) {
+		final int size = pools.size();
+		if (size == 1) {
+			return firstAvailable(pools, 0);
+		}
+		// power of two choices: comparing two random hosts avoids herding on the single fastest one
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		final int first = random.nextInt(size);
+		final int second = (first + 1 + random.nextInt(size - 1)) % size;
+		final HostPool a = pools.get(first);
+		final HostPool b = pools.get(second);
+		if (a.isAvailable() && b.isAvailable()) {
+			return score(a) <= score(b) ? a : b;
+		}
+		return a.isAvailable() ? a : b.isAvailable() ? b : leastInFlight(pools);
+	}
+
+	private static double score(final HostPool hostPool) {
+		return (double) hostPool.latency() * (hostPool.inFlight() + 1);
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.arangodb.internal.Failures;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+
+/**
+ * Remembers the host on which a cursor was created. A cursor only exists on the coordinator which executed its
+ * query, so the requests for its next batches and for deleting it have to be sent to the same host.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+class CursorAffinity {
+
+	static final String PATH_API_CURSOR = "/_api/cursor";
+	private static final String PATH_API_CURSOR_ID = PATH_API_CURSOR + "/";
+	// cursors which are neither read to the end nor closed are dropped after this time without a request
+	private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toNanos(10);
+	private static final int PURGE_THRESHOLD = 1024;
+
+	private static class Affinity {
+		private final HostPool hostPool;
+		private volatile long lastUsed;
+
+		private Affinity(final HostPool hostPool) {
+			super();
+			this.hostPool = hostPool;
+			lastUsed = System.nanoTime();
+		}
+	}
+
+	private final ConcurrentMap<String, Affinity> cursors;
+
+	CursorAffinity() {
+		super();
+		cursors = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * @return whether the request creates a cursor
+	 */
+	static boolean isCreate(final Request request) {
+		return request.getRequestType() == RequestType.POST && PATH_API_CURSOR.equals(request.getRequest());
+	}
+
+	/**
+	 * @return the id of the cursor the request reads the next batch of or deletes, null for any other request
+	 */
+	static String cursorId(final Request request) {
+		final RequestType type = request.getRequestType();
+		if (type != RequestType.PUT && type != RequestType.DELETE) {
+			return null;
+		}
+		final String path = request.getRequest();
+		if (path == null || !path.startsWith(PATH_API_CURSOR_ID) || path.length() == PATH_API_CURSOR_ID.length()) {
+			return null;
+		}
+		return path.substring(PATH_API_CURSOR_ID.length());
+	}
+
+	/**
+	 * @return the id of the cursor returned in the response, null if the cursor has no more results
+	 */
+	static String openCursorId(final Response response) {
+		final VPackSlice body = response.getBody();
+		if (body == null || !body.isObject()) {
+			return null;
+		}
+		final VPackSlice hasMore = body.get("hasMore");
+		final VPackSlice id = body.get("id");
+		return hasMore.isBoolean() && hasMore.getAsBoolean() && id.isString() ? id.getAsString() : null;
+	}
+
+	/**
+	 * Called with the response of a request creating a cursor on the given host
+	 */
+	void created(final Response response, final HostPool hostPool) {
+		final String id = openCursorId(response);
+		if (id != null) {
+			created(id, hostPool);
+		}
+	}
+
+	void created(final String cursorId, final HostPool hostPool) {
+		if (cursors.size() >= PURGE_THRESHOLD) {
+			purge();
+		}
+		cursors.put(cursorId, new Affinity(hostPool));
+	}
+
+	void removed(final String cursorId) {
+		cursors.remove(cursorId);
+	}
+
+	/**
+	 * @return the host on which the cursor was created, null if it is unknown or was removed from the host list
+	 */
+	HostPool hostPool(final String cursorId) {
+		final Affinity affinity = cursors.get(cursorId);
+		if (affinity == null) {
+			return null;
+		}
+		if (affinity.hostPool.retiredAt() != 0L) {
+			cursors.remove(cursorId, affinity);
+			return null;
+		}
+		affinity.lastUsed = System.nanoTime();
+		return affinity.hostPool;
+	}
+
+	/**
+	 * Called when a request for the cursor completed. The host is forgotten when the server answered that the cursor
+	 * was deleted, has no more results or is unknown. A request which failed without an answer, e.g. on a lost
+	 * connection, keeps the host, the cursor still exists there.
+	 */
+	void completed(final String cursorId, final Request request, final Response response, final Throwable ex) {
+		if (response == null && !Failures.isAnswered(ex)) {
+			return;
+		}
+		if (request.getRequestType() == RequestType.DELETE || response == null || openCursorId(response) == null) {
+			cursors.remove(cursorId);
+		}
+	}
+
+	private void purge() {
+		final long now = System.nanoTime();
+		for (final Iterator<Entry<String, Affinity>> iterator = cursors.entrySet().iterator(); iterator.hasNext();) {
+			if (now - iterator.next().getValue().lastUsed > IDLE_TIMEOUT) {
+				iterator.remove();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.arangodb.internal.Idempotency;
+import com.arangodb.internal.TokenBudget;
+import com.arangodb.metrics.LatencyHistogram;
+import com.arangodb.model.HedgingOptions;
+import com.arangodb.velocystream.Request;
+
+/**
+ * Decides which requests are hedged and when, see {@link HedgingOptions}. Only idempotent reads are hedged: reading
+ * a document, reading multiple documents and AQL queries without data modification.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+class Hedging {
+
+	private static final double DEFAULT_PERCENTILE = 95.0;
+	private static final double DEFAULT_BUDGET = 0.05;
+	private static final int BURST = 10;
+	private static final int WINDOW = 1000;
+
+	private final double percentile;
+	private final long fixedDelay;
+	private final TokenBudget budget;
+	private final LatencyHistogram window;
+	private final AtomicLong samples;
+	private volatile long delay;
+
+	Hedging(final HedgingOptions options) {
+		super();
+		percentile = options.getPercentile() != null ? options.getPercentile() : DEFAULT_PERCENTILE;
+		fixedDelay = options.getDelay() != null ? TimeUnit.MILLISECONDS.toNanos(options.getDelay()) : 0L;
+		budget = new TokenBudget(options.getBudget() != null ? options.getBudget() : DEFAULT_BUDGET, BURST, false);
+		window = new LatencyHistogram();
+		samples = new AtomicLong();
+	}
+
+	static boolean isHedgeable(final Request request) {
+		return Idempotency.isDocumentRead(request);
+	}
+
+	/**
+	 * Called for every hedgeable operation, adds to the budget of duplicate requests.
+	 * 
+	 * @return time in nanoseconds after which a duplicate request should be sent, 0 for none
+	 */
+	long start() {
+		budget.deposit();
+		return fixedDelay > 0 ? fixedDelay : delay;
+	}
+
+	/**
+	 * @return whether the budget allows a duplicate request, which is then deducted from the budget
+	 */
+	boolean tryAcquire() {
+		return budget.tryAcquire();
+	}
+
+	/**
+	 * Records the response time of a request, the hedging delay is derived from the last {@value #WINDOW} response
+	 * times.
+	 */
+	void record(final long durationNanos) {
+		if (fixedDelay > 0) {
+			return;
+		}
+		window.record(durationNanos);
+		if (samples.incrementAndGet() % WINDOW == 0) {
+			delay = window.getValueAtPercentile(percentile);
+			window.reset();
+		}
+	}
+
+}
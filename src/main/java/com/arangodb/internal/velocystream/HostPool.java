@@ -0,0 +1,289 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.internal.velocystream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.arangodb.ArangoDBException;
+import com.arangodb.internal.Host;
+import com.arangodb.metrics.ArangoMetrics;
+import com.arangodb.model.ConnectionPoolOptions;
+
+/**
+ * Connections of a {@link ConnectionPoolAsync} to one host. By default connections are opened with every request
+ * until the maximum is reached. An elastic pool (see {@link ConnectionPoolOptions}) only opens another connection
+ * when the existing ones are busy and closes connections which were idle for a while.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+class HostPool {
+
+	private static final int DEFAULT_MIN_CONNECTIONS = 1;
+	private static final int DEFAULT_IN_FLIGHT_THRESHOLD = 8;
+	static final int DEFAULT_IDLE_TIMEOUT = 60000;
+
+	private final Host host;
+	private final Supplier<ConnectionAsync> factory;
+	private final int maxConnections;
+	private final int minConnections;
+	private final int inFlightThreshold;
+	private final long idleTimeout;
+	private final CircuitBreaker circuitBreaker;
+	private final ArangoMetrics metrics;
+	// replaced as a whole, so that readers always see a consistent list
+	private volatile List<ConnectionAsync> connections;
+	// removed from the pool, closed when their pending requests were answered
+	private final List<ConnectionAsync> draining;
+	private final AtomicInteger next;
+	private volatile long retiredAt;
+
+	HostPool(final Host host, final Supplier<ConnectionAsync> factory, final int maxConnections,
+		final ConnectionPoolOptions elastic, final CircuitBreaker circuitBreaker, final ArangoMetrics metrics) {
+		super();
+		this.host = host;
+		this.factory = factory;
+		this.maxConnections = maxConnections;
+		if (elastic != null) {
+			minConnections = Math.min(maxConnections, Math.max(1,
+				elastic.getMinConnections() != null ? elastic.getMinConnections() : DEFAULT_MIN_CONNECTIONS));
+			inFlightThreshold = Math.max(1, elastic.getInFlightThreshold() != null ? elastic.getInFlightThreshold()
+					: DEFAULT_IN_FLIGHT_THRESHOLD);
+			idleTimeout = TimeUnit.MILLISECONDS
+					.toNanos(elastic.getIdleTimeout() != null ? elastic.getIdleTimeout() : DEFAULT_IDLE_TIMEOUT);
+		} else {
+			minConnections = maxConnections;
+			inFlightThreshold = 0;
+			idleTimeout = 0L;
+		}
+		this.circuitBreaker = circuitBreaker;
+		this.metrics = metrics;
+		connections = Collections.emptyList();
+		draining = new ArrayList<>();
+		next = new AtomicInteger();
+	}
+
+	static String address(final Host host) {
+		return host.getHost() + ":" + host.getPort();
+	}
+
+	/**
+	 * @return the host or null if the connections fail over between all hosts
+	 */
+	Host host() {
+		return host;
+	}
+
+	/**
+	 * @return the circuit breaker of the host or null if circuit breaking is disabled
+	 */
+	CircuitBreaker circuitBreaker() {
+		return circuitBreaker;
+	}
+
+	boolean isAvailable() {
+		return circuitBreaker == null || circuitBreaker.isClosed();
+	}
+
+	boolean tryHalfOpen() {
+		return circuitBreaker != null && circuitBreaker.tryHalfOpen();
+	}
+
+	ConnectionAsync connection() {
+		if (shouldGrow(connections)) {
+			synchronized (this) {
+				final List<ConnectionAsync> current = connections;
+				if (shouldGrow(current)) {
+					final ConnectionAsync connection = factory.get();
+					final List<ConnectionAsync> grown = new ArrayList<>(current);
+					grown.add(connection);
+					connections = Collections.unmodifiableList(grown);
+					if (metrics != null) {
+						metrics.connectionOpened(connection.id());
+					}
+					return connection;
+				}
+			}
+		}
+		return leastBusy(connections);
+	}
+
+	/**
+	 * Picks the connection with the fewest messages waiting for a response, and of those the one with the fewest
+	 * pending bytes, so that small requests do not queue behind a connection busy with a large message. The scan
+	 * starts at a rotating position, so idle connections are used in turn.
+	 */
+	private ConnectionAsync leastBusy(final List<ConnectionAsync> current) {
+		final int size = current.size();
+		final int start = next.getAndIncrement() & Integer.MAX_VALUE;
+		ConnectionAsync least = null;
+		int leastInFlight = Integer.MAX_VALUE;
+		long leastBytes = Long.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			final ConnectionAsync connection = current.get((start + i) % size);
+			final int inFlight = connection.inFlight();
+			final long bytes = connection.pendingBytes();
+			if (inFlight == 0 && bytes == 0) {
+				return connection;
+			}
+			if (inFlight < leastInFlight || (inFlight == leastInFlight && bytes < leastBytes)) {
+				least = connection;
+				leastInFlight = inFlight;
+				leastBytes = bytes;
+			}
+		}
+		return least;
+	}
+
+	private boolean shouldGrow(final List<ConnectionAsync> current) {
+		final int size = current.size();
+		if (size >= maxConnections) {
+			return false;
+		}
+		if (size < minConnections) {
+			return true;
+		}
+		int inFlight = 0;
+		for (final ConnectionAsync connection : current) {
+			inFlight += connection.inFlight();
+		}
+		return inFlight >= inFlightThreshold * size;
+	}
+
+	/**
+	 * Removes the connections which had no request for the idle timeout from the pool, as long as more than the
+	 * minimum number of connections are open. A removed connection is closed at the next call, when the requests
+	 * which picked it just before its removal have been answered.
+	 */
+	synchronized void closeIdle() {
+		closeDrained();
+		if (idleTimeout <= 0) {
+			return;
+		}
+		final long now = System.nanoTime();
+		final List<ConnectionAsync> current = connections;
+		final List<ConnectionAsync> kept = new ArrayList<>(current);
+		for (final ConnectionAsync connection : current) {
+			if (kept.size() <= minConnections) {
+				break;
+			}
+			if (connection.inFlight() == 0 && now - connection.lastUsed() > idleTimeout) {
+				kept.remove(connection);
+				draining.add(connection);
+			}
+		}
+		if (kept.size() != current.size()) {
+			connections = Collections.unmodifiableList(kept);
+		}
+	}
+
+	private void closeDrained() {
+		for (final Iterator<ConnectionAsync> iterator = draining.iterator(); iterator.hasNext();) {
+			final ConnectionAsync connection = iterator.next();
+			if (connection.inFlight() == 0) {
+				iterator.remove();
+				close(connection);
+			}
+		}
+	}
+
+	private void close(final ConnectionAsync connection) {
+		try {
+			connection.close();
+		} catch (final Exception e) {
+			throw new ArangoDBException(e);
+		} finally {
+			if (metrics != null) {
+				metrics.connectionClosed(connection.id());
+			}
+		}
+	}
+
+	/**
+	 * @return number of messages sent to the host which are waiting for a response
+	 */
+	int inFlight() {
+		int inFlight = 0;
+		for (final ConnectionAsync connection : connections) {
+			inFlight += connection.inFlight();
+		}
+		return inFlight;
+	}
+
+	/**
+	 * @return number of connections in the pool
+	 */
+	int size() {
+		return connections.size();
+	}
+
+	/**
+	 * @return average response time of the connections in nanoseconds, 0 if no response was received yet
+	 */
+	long latency() {
+		long sum = 0;
+		int count = 0;
+		for (final ConnectionAsync connection : connections) {
+			final long latency = connection.latency();
+			if (latency > 0) {
+				sum += latency;
+				count++;
+			}
+		}
+		return count > 0 ? sum / count : 0L;
+	}
+
+	/**
+	 * Marks the host as removed from the pool.
+	 */
+	void retire() {
+		retiredAt = System.nanoTime();
+	}
+
+	long retiredAt() {
+		return retiredAt;
+	}
+
+	synchronized void disconnect() {
+		final List<ConnectionAsync> closing = new ArrayList<>(connections);
+		closing.addAll(draining);
+		connections = Collections.emptyList();
+		draining.clear();
+		ArangoDBException error = null;
+		for (final ConnectionAsync connection : closing) {
+			try {
+				close(connection);
+			} catch (final ArangoDBException e) {
+				error = e;
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+}
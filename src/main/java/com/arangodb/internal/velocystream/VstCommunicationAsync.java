@@ -21,8 +21,25 @@
 package com.arangodb.internal.velocystream;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import javax.net.ssl.SSLContext;
 
@@ -31,17 +48,27 @@ import org.slf4j.LoggerFactory;
 
 import com.arangodb.ArangoDBException;
 import com.arangodb.entity.ErrorEntity;
+import com.arangodb.entity.LoadBalancingStrategy;
 import com.arangodb.internal.ArangoDBConstants;
 import com.arangodb.internal.CollectionCache;
+import com.arangodb.internal.Failures;
+import com.arangodb.internal.Host;
 import com.arangodb.internal.HostHandler;
 import com.arangodb.internal.velocystream.internal.AuthenticationRequest;
-import com.arangodb.internal.velocystream.internal.ConnectionPool;
 import com.arangodb.internal.velocystream.internal.Message;
 import com.arangodb.internal.velocystream.internal.MessageStore;
+import com.arangodb.metrics.ArangoMetrics;
+import com.arangodb.model.CircuitBreakerOptions;
+import com.arangodb.model.ConnectionPoolOptions;
+import com.arangodb.model.HedgingOptions;
 import com.arangodb.util.ArangoSerialization;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
 import com.arangodb.velocypack.exception.VPackException;
 import com.arangodb.velocypack.exception.VPackParserException;
 import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
 import com.arangodb.velocystream.Response;
 
 /**
@@ -51,11 +78,34 @@ import com.arangodb.velocystream.Response;
 public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Response>, ConnectionAsync> {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(VstCommunicationAsync.class);
+	private static final String PATH_HEALTH_CHECK = "/_api/version";
+	private static final String PATH_CLUSTER_ENDPOINTS = "/_api/cluster/endpoints";
+	private static final int DEFAULT_ACQUIRE_HOST_LIST_INTERVAL = 60000;
+	private final ConnectionPoolAsync pool;
+	private final ScheduledExecutorService scheduler;
+	private final boolean ownsScheduler;
+	private final long healthCheckInterval;
+	// hosts whose health check was not answered yet, they get no further one in the meantime
+	private final Set<HostPool> probing;
+	private final Hedging hedging;
+	private final CursorAffinity cursors;
 	private final CollectionCache collectionCache;
+	private final Executor completionExecutor;
+	private final Executor blockingExecutor;
+	private final Executor writeExecutor;
+	private final ExecutorService writer;
+	private final ArangoMetrics metrics;
 
 	public static class Builder {
 
 		private final HostHandler hostHandler;
+		private Collection<Host> hosts;
+		private LoadBalancingStrategy loadBalancingStrategy;
+		private CircuitBreakerOptions circuitBreaker;
+		private Integer healthCheckInterval;
+		private HedgingOptions hedging;
+		private Boolean acquireHostList;
+		private Integer acquireHostListInterval;
 		private Integer timeout;
 		private String user;
 		private String password;
@@ -63,12 +113,51 @@ public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Re
 		private SSLContext sslContext;
 		private Integer chunksize;
 		private Integer maxConnections;
+		private ConnectionPoolOptions connectionPool;
+		private Executor completionExecutor;
+		private Executor blockingExecutor;
+		private ArangoMetrics metrics;
 
 		public Builder(final HostHandler hostHandler) {
 			super();
 			this.hostHandler = hostHandler;
 		}
 
+		public Builder hosts(final Collection<Host> hosts) {
+			this.hosts = hosts;
+			return this;
+		}
+
+		public Builder loadBalancingStrategy(final LoadBalancingStrategy loadBalancingStrategy) {
+			this.loadBalancingStrategy = loadBalancingStrategy;
+			return this;
+		}
+
+		public Builder circuitBreaker(final CircuitBreakerOptions circuitBreaker) {
+			this.circuitBreaker = circuitBreaker;
+			return this;
+		}
+
+		public Builder healthCheckInterval(final Integer healthCheckInterval) {
+			this.healthCheckInterval = healthCheckInterval;
+			return this;
+		}
+
+		public Builder hedging(final HedgingOptions hedging) {
+			this.hedging = hedging;
+			return this;
+		}
+
+		public Builder acquireHostList(final Boolean acquireHostList) {
+			this.acquireHostList = acquireHostList;
+			return this;
+		}
+
+		public Builder acquireHostListInterval(final Integer acquireHostListInterval) {
+			this.acquireHostListInterval = acquireHostListInterval;
+			return this;
+		}
+
 		public Builder timeout(final Integer timeout) {
 			this.timeout = timeout;
 			return this;
@@ -104,46 +193,376 @@ public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Re
 			return this;
 		}
 
+		public Builder connectionPool(final ConnectionPoolOptions connectionPool) {
+			this.connectionPool = connectionPool;
+			return this;
+		}
+
+		public Builder completionExecutor(final Executor completionExecutor) {
+			this.completionExecutor = completionExecutor;
+			return this;
+		}
+
+		public Builder blockingExecutor(final Executor blockingExecutor) {
+			this.blockingExecutor = blockingExecutor;
+			return this;
+		}
+
+		public Builder metrics(final ArangoMetrics metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+
 		public VstCommunicationAsync build(final ArangoSerialization util, final CollectionCache collectionCache) {
-			return new VstCommunicationAsync(hostHandler, timeout, user, password, useSsl, sslContext, util,
-					collectionCache, chunksize, maxConnections);
+			return build(util, collectionCache, null);
+		}
+
+		/**
+		 * @param cluster
+		 *            communication whose host list, circuit breakers, health checks, hedging and scheduler are
+		 *            shared, only the connections are separate. Null to create them.
+		 */
+		public VstCommunicationAsync build(
+			final ArangoSerialization util,
+			final CollectionCache collectionCache,
+			final VstCommunicationAsync cluster) {
+			// writes the chunks of large messages which the calling threads left over and opens the connections of
+			// health checks, host list requests and duplicate requests, which must not block the scheduler thread
+			final ExecutorService writer = cluster == null && blockingExecutor == null
+					? Executors.newCachedThreadPool(r -> {
+						final Thread thread = new Thread(r, "arangodb-writer");
+						thread.setDaemon(true);
+						return thread;
+					})
+					: null;
+			final Executor writeExecutor = cluster != null ? cluster.writeExecutor
+					: blockingExecutor != null ? blockingExecutor : writer;
+			final Function<HostHandler, ConnectionAsync> connectionFactory = handler -> new ConnectionAsync.Builder(
+					handler, new MessageStore()).timeout(timeout).useSsl(useSsl).sslContext(sslContext)
+							.metrics(metrics).writeExecutor(writeExecutor).build();
+			final ConnectionPoolAsync pool = cluster != null
+					? cluster.pool.group(maxConnections, hostHandler, connectionFactory)
+					: new ConnectionPoolAsync(maxConnections, connectionPool, loadBalancingStrategy, hostHandler, hosts,
+							circuitBreaker, metrics, connectionFactory);
+			final Integer hostListInterval = acquireHostList != null && acquireHostList
+					? (acquireHostListInterval != null ? acquireHostListInterval : DEFAULT_ACQUIRE_HOST_LIST_INTERVAL)
+					: null;
+			return new VstCommunicationAsync(cluster, pool, healthCheckInterval, hedging, hostListInterval, timeout,
+					user, password, useSsl, sslContext, util, collectionCache, chunksize, completionExecutor,
+					blockingExecutor, writeExecutor, writer, metrics);
+		}
+	}
+
+	private VstCommunicationAsync(final VstCommunicationAsync cluster, final ConnectionPoolAsync pool,
+		final Integer healthCheckInterval, final HedgingOptions hedging, final Integer acquireHostListInterval,
+		final Integer timeout, final String user, final String password, final Boolean useSsl,
+		final SSLContext sslContext, final ArangoSerialization util, final CollectionCache collectionCache,
+		final Integer chunksize, final Executor completionExecutor, final Executor blockingExecutor,
+		final Executor writeExecutor, final ExecutorService writer, final ArangoMetrics metrics) {
+		super(timeout, user, password, useSsl, sslContext, util, chunksize, pool);
+		this.pool = pool;
+		this.collectionCache = collectionCache;
+		this.completionExecutor = completionExecutor;
+		this.blockingExecutor = blockingExecutor;
+		this.writeExecutor = writeExecutor;
+		this.writer = writer;
+		this.metrics = metrics;
+		cursors = pool.isBalancing() ? new CursorAffinity() : null;
+		probing = ConcurrentHashMap.newKeySet();
+		ownsScheduler = cluster == null;
+		if (cluster != null) {
+			// the cluster communication checks the health, updates the hosts and closes idle connections for the
+			// pools of all connection groups
+			this.hedging = cluster.hedging;
+			this.healthCheckInterval = 0L;
+			scheduler = cluster.scheduler;
+			return;
+		}
+		this.hedging = hedging != null ? new Hedging(hedging) : null;
+		this.healthCheckInterval = healthCheckInterval != null && healthCheckInterval > 0
+				? TimeUnit.MILLISECONDS.toNanos(healthCheckInterval) : 0L;
+		final boolean acquireHostList = acquireHostListInterval != null && acquireHostListInterval > 0
+				&& pool.isBalancing();
+		final long idleCheckInterval = pool.idleCheckInterval();
+		if (this.healthCheckInterval > 0 || this.hedging != null || acquireHostList || idleCheckInterval > 0) {
+			final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+				final Thread thread = new Thread(r, "arangodb-scheduler");
+				thread.setDaemon(true);
+				return thread;
+			});
+			// hedging timers and health check timeouts are cancelled long before they are due
+			executor.setRemoveOnCancelPolicy(true);
+			scheduler = executor;
+		} else {
+			scheduler = null;
+		}
+		if (this.healthCheckInterval > 0) {
+			scheduler.scheduleWithFixedDelay(this::checkHealth, this.healthCheckInterval, this.healthCheckInterval,
+				TimeUnit.NANOSECONDS);
+		}
+		if (acquireHostList) {
+			scheduler.scheduleWithFixedDelay(this::acquireHostList, 0, acquireHostListInterval,
+				TimeUnit.MILLISECONDS);
+		}
+		if (idleCheckInterval > 0) {
+			scheduler.scheduleWithFixedDelay(this::closeIdleConnections, idleCheckInterval, idleCheckInterval,
+				TimeUnit.NANOSECONDS);
 		}
 	}
 
-	private VstCommunicationAsync(final HostHandler hostHandler, final Integer timeout, final String user,
-		final String password, final Boolean useSsl, final SSLContext sslContext, final ArangoSerialization util,
-		final CollectionCache collectionCache, final Integer chunksize, final Integer maxConnections) {
-		super(timeout, user, password, useSsl, sslContext, util, chunksize,
-				new ConnectionPool<ConnectionAsync>(maxConnections) {
-					private final ConnectionAsync.Builder builder = new ConnectionAsync.Builder(hostHandler,
-							new MessageStore()).timeout(timeout).useSsl(useSsl).sslContext(sslContext);
+	/**
+	 * @return the executor for blocking operations, null if they run on the calling thread
+	 */
+	public Executor blockingExecutor() {
+		return blockingExecutor;
+	}
 
-					@Override
-					public ConnectionAsync createConnection() {
-						return builder.build();
+	@Override
+	public CompletableFuture<Response> execute(final Request request) {
+		final String cursorId = cursors != null ? CursorAffinity.cursorId(request) : null;
+		final HostPool affinity = cursorId != null ? cursors.hostPool(cursorId) : null;
+		final HostPool hostPool;
+		try {
+			hostPool = affinity != null ? affinity : pool.select();
+		} catch (final ArangoDBException e) {
+			final CompletableFuture<Response> rfuture = new CompletableFuture<>();
+			rfuture.completeExceptionally(e);
+			return rfuture;
+		}
+		if (cursorId != null) {
+			// the cursor only exists on the host which created it
+			return execute(request, hostPool.connection(), hostPool.circuitBreaker())
+					.whenComplete((response, ex) -> cursors.completed(cursorId, request, response, ex));
+		}
+		if (hedging != null && Hedging.isHedgeable(request)) {
+			return executeHedged(request, hostPool);
+		}
+		return cursorCreated(request, hostPool,
+			execute(request, hostPool.connection(), hostPool.circuitBreaker()));
+	}
+
+	/**
+	 * Remembers the host of the cursor created by the given request, if any
+	 */
+	private CompletableFuture<Response> cursorCreated(
+		final Request request,
+		final HostPool hostPool,
+		final CompletableFuture<Response> response) {
+		if (cursors != null && CursorAffinity.isCreate(request)) {
+			return response.thenApply(r -> {
+				cursors.created(r, hostPool);
+				return r;
+			});
+		}
+		return response;
+	}
+
+	/**
+	 * Sends the request and, if it is not answered within the hedging delay, a duplicate to another host or
+	 * connection. The first response wins, the other one is dropped. If the request fails without a response before
+	 * the delay, the duplicate is sent right away.
+	 */
+	private CompletableFuture<Response> executeHedged(final Request request, final HostPool hostPool) {
+		final long delay = hedging.start();
+		final ConnectionAsync connection = hostPool.connection();
+		if (delay <= 0) {
+			return cursorCreated(request, hostPool, attempt(request, hostPool, connection, blockingExecutor));
+		}
+		final HedgedRequest hedged = new HedgedRequest(request, hostPool);
+		hedged.send(hostPool, connection, blockingExecutor);
+		final ScheduledFuture<?> timer = scheduler.schedule(() -> {
+			if (hedged.canHedge() && hedging.tryAcquire()) {
+				hedged.hedge();
+			}
+		}, delay, TimeUnit.NANOSECONDS);
+		hedged.result.whenComplete((response, ex) -> timer.cancel(false));
+		return hedged.result;
+	}
+
+	private class HedgedRequest {
+		private final Request request;
+		private final HostPool first;
+		private final CompletableFuture<Response> result;
+		// requests sent or about to be sent which did not complete yet, guarded by this
+		private int pending;
+		private boolean hedged;
+
+		private HedgedRequest(final Request request, final HostPool first) {
+			super();
+			this.request = request;
+			this.first = first;
+			result = new CompletableFuture<>();
+			pending = 1;
+		}
+
+		private void send(final HostPool hostPool, final ConnectionAsync connection, final Executor connectExecutor) {
+			attempt(request, hostPool, connection, connectExecutor)
+					.whenComplete((response, ex) -> completed(hostPool, connection, response, ex));
+		}
+
+		private synchronized boolean canHedge() {
+			return !result.isDone() && !hedged;
+		}
+
+		/**
+		 * Sends the duplicate request, at most once. The duplicate is counted as pending before it is marked as sent,
+		 * so that a failure of the first request in between waits for it.
+		 * 
+		 * @return whether the duplicate was sent
+		 */
+		private boolean hedge() {
+			synchronized (this) {
+				if (result.isDone() || hedged) {
+					return false;
+				}
+				hedged = true;
+				pending++;
+			}
+			if (metrics != null) {
+				metrics.requestHedged(request);
+			}
+			final HostPool other = pool.selectOther(first);
+			// called on the scheduler or an I/O thread, neither may wait for a new connection
+			send(other, other.connection(), writeExecutor);
+			return true;
+		}
+
+		private void completed(
+			final HostPool hostPool,
+			final ConnectionAsync connection,
+			final Response response,
+			final Throwable ex) {
+			if (response != null) {
+				final String cursorId = CursorAffinity.isCreate(request) ? CursorAffinity.openCursorId(response)
+						: null;
+				// known before the result completes, so that the caller reads the next batch from this host
+				if (cursorId != null && cursors != null && !result.isDone()) {
+					cursors.created(cursorId, hostPool);
+				}
+				if (!result.complete(response) && cursorId != null) {
+					if (cursors != null) {
+						cursors.removed(cursorId);
 					}
-				});
-		this.collectionCache = collectionCache;
+					closeCursor(request.getDatabase(), cursorId, connection);
+				}
+				return;
+			}
+			// an error response of the server is final, a request which failed without a response waits for the
+			// other one, or sends it right away if it was not sent yet. It does not take from the hedging budget,
+			// the failed request did not add load.
+			final boolean last;
+			synchronized (this) {
+				last = --pending == 0;
+			}
+			if (Failures.isAnswered(ex) || (last && !hedge())) {
+				result.completeExceptionally(Failures.unwrap(ex));
+			}
+		}
+	}
+
+	private CompletableFuture<Response> attempt(
+		final Request request,
+		final HostPool hostPool,
+		final ConnectionAsync connection,
+		final Executor connectExecutor) {
+		final long start = System.nanoTime();
+		CompletableFuture<Response> response;
+		try {
+			response = execute(request, connection, hostPool.circuitBreaker(), connectExecutor);
+		} catch (final RuntimeException e) {
+			response = new CompletableFuture<>();
+			response.completeExceptionally(e);
+		}
+		response.whenComplete((r, ex) -> hedging.record(System.nanoTime() - start));
+		return response;
+	}
+
+	/**
+	 * Deletes the cursor created by the losing request of a hedged query.
+	 */
+	private void closeCursor(final String database, final String cursorId, final ConnectionAsync connection) {
+		try {
+			execute(new Request(database, RequestType.DELETE, CursorAffinity.PATH_API_CURSOR + "/" + cursorId),
+				connection, null);
+		} catch (final RuntimeException e) {
+			LOGGER.debug(e.getMessage(), e);
+		}
 	}
 
 	@Override
 	public CompletableFuture<Response> execute(final Request request, final ConnectionAsync connection) {
-		connect(connection);
+		return execute(request, connection, null);
+	}
+
+	private CompletableFuture<Response> execute(
+		final Request request,
+		final ConnectionAsync connection,
+		final CircuitBreaker circuitBreaker) {
+		return execute(request, connection, circuitBreaker, blockingExecutor);
+	}
+
+	/**
+	 * @param connectExecutor
+	 *            opens the connection if it is not open yet, null to open it on the calling thread
+	 */
+	private CompletableFuture<Response> execute(
+		final Request request,
+		final ConnectionAsync connection,
+		final CircuitBreaker circuitBreaker,
+		final Executor connectExecutor) {
+		final long start = circuitBreaker != null ? System.nanoTime() : 0L;
+		if (connectExecutor != null && !connection.isOpen()) {
+			// opening and authenticating a connection blocks, keep it away from the calling thread
+			final CompletableFuture<Void> connected = CompletableFuture.runAsync(() -> connect(connection),
+				connectExecutor);
+			if (circuitBreaker != null) {
+				connected.whenComplete((v, ex) -> {
+					if (ex != null) {
+						circuitBreaker.record(System.nanoTime() - start, true);
+					}
+				});
+			}
+			return connected.thenCompose(v -> executeConnected(request, connection, circuitBreaker, start));
+		}
+		try {
+			connect(connection);
+		} catch (final RuntimeException e) {
+			if (circuitBreaker != null) {
+				circuitBreaker.record(System.nanoTime() - start, true);
+			}
+			throw e;
+		}
+		return executeConnected(request, connection, circuitBreaker, start);
+	}
+
+	private CompletableFuture<Response> executeConnected(
+		final Request request,
+		final ConnectionAsync connection,
+		final CircuitBreaker circuitBreaker,
+		final long start) {
 		final CompletableFuture<Response> rfuture = new CompletableFuture<>();
 		try {
 			final Message message = createMessage(request);
-			send(message, connection).whenComplete((m, ex) -> {
+			final BiConsumer<Message, Throwable> completion = (m, ex) -> {
+				if (circuitBreaker != null) {
+					circuitBreaker.record(System.nanoTime() - start, m == null || responseCode(m) >= 500);
+				}
 				if (m != null) {
 					try {
 						collectionCache.setDb(request.getDatabase());
 						final Response response = createResponse(m);
 						if (response.getResponseCode() >= 300) {
+							if (metrics != null) {
+								metrics.error(response.getResponseCode());
+							}
 							if (response.getBody() != null) {
 								final ErrorEntity errorEntity = util.deserialize(response.getBody(), ErrorEntity.class);
 								rfuture.completeExceptionally(new ArangoDBException(errorEntity));
 							} else {
-								rfuture.completeExceptionally(new ArangoDBException(
-										String.format("Response Code: %s", response.getResponseCode())));
+								// keep the response code, e.g. for retries after 503
+								final ErrorEntity errorEntity = util
+										.deserialize(errorBody(response.getResponseCode()), ErrorEntity.class);
+								rfuture.completeExceptionally(new ArangoDBException(errorEntity));
 							}
 						} else {
 							rfuture.complete(response);
@@ -154,18 +573,216 @@ public class VstCommunicationAsync extends VstCommunication<CompletableFuture<Re
 					}
 				} else if (ex != null) {
 					LOGGER.error(ex.getMessage(), ex);
+					if (metrics != null) {
+						metrics.error(0);
+					}
 					rfuture.completeExceptionally(ex);
 				} else {
 					rfuture.cancel(true);
 				}
-			});
+			};
+			// opening a connection waits for its authentication, which must not depend on the completion executor:
+			// its thread may be the one opening the connection
+			if (completionExecutor != null && !(request instanceof AuthenticationRequest)) {
+				send(message, connection).whenCompleteAsync(completion, completionExecutor);
+			} else {
+				send(message, connection).whenComplete(completion);
+			}
 		} catch (final IOException | VPackException e) {
 			LOGGER.error(e.getMessage(), e);
+			if (metrics != null) {
+				metrics.error(0);
+			}
+			if (circuitBreaker != null) {
+				circuitBreaker.record(System.nanoTime() - start, true);
+			}
 			rfuture.completeExceptionally(e);
 		}
 		return rfuture;
 	}
 
+	private static VPackSlice errorBody(final int responseCode) {
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add("error", true);
+		builder.add("code", responseCode);
+		builder.add("errorMessage", String.format("Response Code: %s", responseCode));
+		builder.close();
+		return builder.slice();
+	}
+
+	private static int responseCode(final Message message) {
+		try {
+			return message.getHead().get(2).getAsInt();
+		} catch (final VPackException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Sends a health check to every host of the load balancing strategy. A host which does not answer within the
+	 * health check interval opens its circuit, an open circuit whose open duration elapsed is closed again by a
+	 * successful health check. Connections are opened off the scheduler thread, which also fires the hedging timers.
+	 */
+	private void checkHealth() {
+		for (final HostPool hostPool : pool.hostPools()) {
+			if (hostPool.host() == null || probing.contains(hostPool)) {
+				continue;
+			}
+			final CircuitBreaker circuitBreaker = hostPool.circuitBreaker();
+			if (circuitBreaker != null && !circuitBreaker.isClosed() && !circuitBreaker.tryHalfOpen()) {
+				continue;
+			}
+			probing.add(hostPool);
+			try {
+				checkHealth(hostPool, circuitBreaker);
+			} catch (final RuntimeException e) {
+				probing.remove(hostPool);
+				LOGGER.error(e.getMessage(), e);
+			}
+		}
+	}
+
+	private void checkHealth(final HostPool hostPool, final CircuitBreaker circuitBreaker) {
+		final String address = HostPool.address(hostPool.host());
+		final long start = System.nanoTime();
+		final AtomicBoolean done = new AtomicBoolean();
+		final BiConsumer<Response, Throwable> completion = (response, ex) -> {
+			if (!done.compareAndSet(false, true)) {
+				return;
+			}
+			final boolean healthy = ex == null;
+			if (!healthy && LOGGER.isDebugEnabled()) {
+				LOGGER.debug(String.format("Health check of host %s failed", address), ex);
+			}
+			if (circuitBreaker != null) {
+				if (healthy) {
+					circuitBreaker.record(System.nanoTime() - start, false);
+				} else {
+					circuitBreaker.open();
+				}
+			}
+			if (metrics != null) {
+				metrics.healthChecked(address, healthy, System.nanoTime() - start);
+			}
+		};
+		final ScheduledFuture<?> timeout = scheduler.schedule(
+			() -> completion.accept(null, new TimeoutException()), healthCheckInterval, TimeUnit.NANOSECONDS);
+		CompletableFuture<Response> response;
+		try {
+			response = execute(new Request(ArangoDBConstants.SYSTEM, RequestType.GET, PATH_HEALTH_CHECK),
+				hostPool.connection(), null, writeExecutor);
+		} catch (final RuntimeException e) {
+			response = new CompletableFuture<>();
+			response.completeExceptionally(e);
+		}
+		response.whenComplete((r, ex) -> {
+			timeout.cancel(false);
+			probing.remove(hostPool);
+			completion.accept(r, ex);
+		});
+	}
+
+	private void closeIdleConnections() {
+		try {
+			pool.closeIdleConnections();
+		} catch (final RuntimeException e) {
+			LOGGER.error(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Replaces the hosts of the load balancing strategy with the coordinators of the cluster. Single servers do not
+	 * support this, then the hosts are kept.
+	 */
+	private void acquireHostList() {
+		try {
+			pool.closeRetired();
+			final HostPool hostPool = pool.select();
+			execute(new Request(ArangoDBConstants.SYSTEM, RequestType.GET, PATH_CLUSTER_ENDPOINTS),
+				hostPool.connection(), hostPool.circuitBreaker(), writeExecutor).whenComplete((response, ex) -> {
+				if (response == null) {
+					LOGGER.debug("Could not acquire the host list", ex);
+					return;
+				}
+				final List<Host> hosts = parseEndpoints(response.getBody());
+				if (!hosts.isEmpty() && pool.updateHosts(hosts)) {
+					final List<String> addresses = new ArrayList<>();
+					for (final Host host : hosts) {
+						addresses.add(HostPool.address(host));
+					}
+					LOGGER.info(String.format("Updated host list to %s", addresses));
+					if (metrics != null) {
+						metrics.hostsChanged(addresses);
+					}
+				}
+			});
+		} catch (final RuntimeException e) {
+			LOGGER.error(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @param body
+	 *            response of <code>/_api/cluster/endpoints</code>, e.g.
+	 *            <code>{"endpoints":[{"endpoint":"tcp://127.0.0.1:8530"}]}</code>
+	 * @return the hosts of the endpoints
+	 */
+	static List<Host> parseEndpoints(final VPackSlice body) {
+		final List<Host> hosts = new ArrayList<>();
+		if (body == null || !body.isObject()) {
+			return hosts;
+		}
+		final VPackSlice endpoints = body.get("endpoints");
+		if (!endpoints.isArray()) {
+			return hosts;
+		}
+		for (final Iterator<VPackSlice> iterator = endpoints.arrayIterator(); iterator.hasNext();) {
+			final VPackSlice endpoint = iterator.next().get("endpoint");
+			if (endpoint.isString()) {
+				final Host host = parseEndpoint(endpoint.getAsString());
+				if (host != null) {
+					hosts.add(host);
+				}
+			}
+		}
+		return hosts;
+	}
+
+	/**
+	 * @param endpoint
+	 *            endpoint like <code>tcp://127.0.0.1:8530</code>, <code>ssl://[::1]:8530</code>
+	 * @return the host or null if the endpoint can not be parsed
+	 */
+	static Host parseEndpoint(final String endpoint) {
+		final int scheme = endpoint.indexOf("://");
+		final String address = scheme >= 0 ? endpoint.substring(scheme + 3) : endpoint;
+		final int colon = address.lastIndexOf(':');
+		if (colon <= 0) {
+			return null;
+		}
+		String host = address.substring(0, colon);
+		if (host.startsWith("[") && host.endsWith("]")) {
+			host = host.substring(1, host.length() - 1);
+		}
+		try {
+			return new Host(host, Integer.parseInt(address.substring(colon + 1)));
+		} catch (final NumberFormatException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void disconnect() {
+		if (scheduler != null && ownsScheduler) {
+			scheduler.shutdownNow();
+		}
+		if (writer != null) {
+			writer.shutdownNow();
+		}
+		super.disconnect();
+	}
+
 	private CompletableFuture<Message> send(final Message message, final ConnectionAsync connection)
 			throws IOException {
 		if (LOGGER.isDebugEnabled()) {
@@ -0,0 +1,167 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.metrics;
+
+import java.util.List;
+
+import com.arangodb.velocystream.Request;
+
+/**
+ * Receives measurements from {@link com.arangodb.ArangoDBAsync}. The methods are called on the hot path of every
+ * request, from many threads concurrently, so implementations have to be thread-safe and should neither block nor
+ * allocate. All methods do nothing by default.
+ * 
+ * @see ArangoMetricsRecorder
+ * @author Mark Vollmary
+ *
+ */
+public interface ArangoMetrics {
+
+	/**
+	 * Called when an operation completed, after its response was deserialized.
+	 * 
+	 * @param request
+	 *            the executed request
+	 * @param durationNanos
+	 *            time between the call to the driver and the completion of the operation
+	 * @param success
+	 *            whether the operation completed successfully
+	 */
+	default void operationCompleted(final Request request, final long durationNanos, final boolean success) {
+	}
+
+	/**
+	 * Called when the server answered with an error or no response could be received.
+	 * 
+	 * @param responseCode
+	 *            response code of the error response, 0 if no response was received
+	 */
+	default void error(final int responseCode) {
+	}
+
+	/**
+	 * Called when a message was written to a connection.
+	 * 
+	 * @param connectionId
+	 *            id of the connection, unique within the JVM
+	 * @param inFlight
+	 *            number of messages sent on the connection which are waiting for a response, including this one
+	 * @param queueWaitNanos
+	 *            time the message waited for the connection to become available for writing
+	 * @param bytes
+	 *            size of the message
+	 * @param chunks
+	 *            number of chunks the message was split into
+	 */
+	default void messageSent(
+		final int connectionId,
+		final int inFlight,
+		final long queueWaitNanos,
+		final long bytes,
+		final int chunks) {
+	}
+
+	/**
+	 * Called when a response message was received on a connection.
+	 * 
+	 * @param connectionId
+	 *            id of the connection, unique within the JVM
+	 * @param inFlight
+	 *            number of messages still waiting for a response on the connection
+	 * @param bytes
+	 *            size of the message
+	 */
+	default void messageReceived(final int connectionId, final int inFlight, final long bytes) {
+	}
+
+	/**
+	 * Called when a connection was added to the pool. The connection is opened with its first request.
+	 * 
+	 * @param connectionId
+	 *            id of the connection, unique within the JVM
+	 */
+	default void connectionOpened(final int connectionId) {
+	}
+
+	/**
+	 * Called when a connection was closed, because it was idle or the driver was shut down.
+	 * 
+	 * @param connectionId
+	 *            id of the connection, unique within the JVM
+	 */
+	default void connectionClosed(final int connectionId) {
+	}
+
+	/**
+	 * Called when a request failed transiently and is sent again after a backoff.
+	 * 
+	 * @param request
+	 *            the retried request
+	 * @param attempt
+	 *            number of the failed attempt, starting with 1
+	 */
+	default void requestRetried(final Request request, final int attempt) {
+	}
+
+	/**
+	 * Called when a duplicate of a request was sent because its response took longer than the hedging delay.
+	 * 
+	 * @param request
+	 *            the hedged request
+	 */
+	default void requestHedged(final Request request) {
+	}
+
+	/**
+	 * Called when the circuit breaker of a host changed its state.
+	 * 
+	 * @param host
+	 *            address of the host as <code>host:port</code>
+	 * @param state
+	 *            the new state
+	 */
+	default void circuitStateChanged(final String host, final CircuitState state) {
+	}
+
+	/**
+	 * Called when the hosts of the load balancing strategy were replaced by the coordinators acquired from the
+	 * cluster.
+	 * 
+	 * @param hosts
+	 *            addresses of the new hosts as <code>host:port</code>
+	 */
+	default void hostsChanged(final List<String> hosts) {
+	}
+
+	/**
+	 * Called when a health check of a host completed.
+	 * 
+	 * @param host
+	 *            address of the host as <code>host:port</code>
+	 * @param healthy
+	 *            whether the host answered in time
+	 * @param durationNanos
+	 *            time until the host answered or the health check timed out
+	 */
+	default void healthChecked(final String host, final boolean healthy, final long durationNanos) {
+	}
+
+}
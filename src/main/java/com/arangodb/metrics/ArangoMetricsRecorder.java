@@ -0,0 +1,377 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+
+/**
+ * {@link ArangoMetrics} which keeps latency histograms per operation (see {@link Operations#name(Request)}) and per
+ * {@link RequestType} and aggregated counters in memory, e.g. to be exported periodically to a monitoring system.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class ArangoMetricsRecorder implements ArangoMetrics {
+
+	private static final int MAX_RESPONSE_CODE = 600;
+	// bounds the memory if requests of custom services with unusual paths produce many operation names
+	private static final int MAX_OPERATIONS = 256;
+
+	private static class Operation {
+		private final int hash;
+		private final String name;
+		private final LatencyHistogram latency;
+
+		private Operation(final int hash, final String name, final LatencyHistogram latency) {
+			super();
+			this.hash = hash;
+			this.name = name;
+			this.latency = latency;
+		}
+	}
+
+	private final LatencyHistogram[] latencies;
+	private final ConcurrentMap<String, LatencyHistogram> operationLatencies;
+	// open addressing by the hash of the operation name, looked up without creating the name
+	private final AtomicReferenceArray<Operation> operationTable;
+	private final LatencyHistogram queueWait;
+	private final LongAdder operations;
+	private final LongAdder failedOperations;
+	private final AtomicLongArray errors;
+	private final LongAdder bytesSent;
+	private final LongAdder bytesReceived;
+	private final LongAdder messagesSent;
+	private final LongAdder messagesReceived;
+	private final LongAdder chunksSent;
+	private final AtomicInteger maxInFlight;
+	private final LongAdder openedConnections;
+	private final LongAdder closedConnections;
+	private final LongAdder retriedRequests;
+	private final LongAdder hedgedRequests;
+	private final Map<String, CircuitState> circuitStates;
+	private final LongAdder healthChecks;
+	private final LongAdder failedHealthChecks;
+	private volatile List<String> hosts;
+
+	public ArangoMetricsRecorder() {
+		super();
+		final RequestType[] types = RequestType.values();
+		latencies = new LatencyHistogram[types.length];
+		for (int i = 0; i < types.length; i++) {
+			latencies[i] = new LatencyHistogram();
+		}
+		operationLatencies = new ConcurrentHashMap<>();
+		operationTable = new AtomicReferenceArray<>(MAX_OPERATIONS * 2);
+		queueWait = new LatencyHistogram();
+		operations = new LongAdder();
+		failedOperations = new LongAdder();
+		errors = new AtomicLongArray(MAX_RESPONSE_CODE);
+		bytesSent = new LongAdder();
+		bytesReceived = new LongAdder();
+		messagesSent = new LongAdder();
+		messagesReceived = new LongAdder();
+		chunksSent = new LongAdder();
+		maxInFlight = new AtomicInteger();
+		openedConnections = new LongAdder();
+		closedConnections = new LongAdder();
+		retriedRequests = new LongAdder();
+		hedgedRequests = new LongAdder();
+		circuitStates = new ConcurrentHashMap<>();
+		healthChecks = new LongAdder();
+		failedHealthChecks = new LongAdder();
+		hosts = Collections.emptyList();
+	}
+
+	@Override
+	public void operationCompleted(final Request request, final long durationNanos, final boolean success) {
+		latencies[request.getRequestType().ordinal()].record(durationNanos);
+		final LatencyHistogram latency = operationLatency(Operations.current(request));
+		if (latency != null) {
+			latency.record(durationNanos);
+		}
+		operations.increment();
+		if (!success) {
+			failedOperations.increment();
+		}
+	}
+
+	private LatencyHistogram operationLatency(final Operations.Name name) {
+		final int mask = operationTable.length() - 1;
+		for (int i = name.hash() & mask;; i = (i + 1) & mask) {
+			final Operation operation = operationTable.get(i);
+			if (operation == null) {
+				return operationLatencies.size() < MAX_OPERATIONS ? addOperation(name) : null;
+			}
+			if (operation.hash == name.hash() && name.contentEquals(operation.name)) {
+				return operation.latency;
+			}
+		}
+	}
+
+	private synchronized LatencyHistogram addOperation(final Operations.Name name) {
+		final String operation = name.toString();
+		final LatencyHistogram added = operationLatencies.get(operation);
+		if (added != null) {
+			// added by another thread since the lookup
+			return added;
+		}
+		if (operationLatencies.size() >= MAX_OPERATIONS) {
+			return null;
+		}
+		final LatencyHistogram latency = new LatencyHistogram();
+		final int mask = operationTable.length() - 1;
+		int i = name.hash() & mask;
+		while (operationTable.get(i) != null) {
+			i = (i + 1) & mask;
+		}
+		operationTable.set(i, new Operation(name.hash(), operation, latency));
+		operationLatencies.put(operation, latency);
+		return latency;
+	}
+
+	@Override
+	public void error(final int responseCode) {
+		errors.incrementAndGet(responseCode >= 0 && responseCode < MAX_RESPONSE_CODE ? responseCode : 0);
+	}
+
+	@Override
+	public void messageSent(
+		final int connectionId,
+		final int inFlight,
+		final long queueWaitNanos,
+		final long bytes,
+		final int chunks) {
+		queueWait.record(queueWaitNanos);
+		bytesSent.add(bytes);
+		messagesSent.increment();
+		chunksSent.add(chunks);
+		int current = maxInFlight.get();
+		while (inFlight > current && !maxInFlight.compareAndSet(current, inFlight)) {
+			current = maxInFlight.get();
+		}
+	}
+
+	@Override
+	public void messageReceived(final int connectionId, final int inFlight, final long bytes) {
+		bytesReceived.add(bytes);
+		messagesReceived.increment();
+	}
+
+	@Override
+	public void connectionOpened(final int connectionId) {
+		openedConnections.increment();
+	}
+
+	@Override
+	public void connectionClosed(final int connectionId) {
+		closedConnections.increment();
+	}
+
+	@Override
+	public void requestRetried(final Request request, final int attempt) {
+		retriedRequests.increment();
+	}
+
+	@Override
+	public void requestHedged(final Request request) {
+		hedgedRequests.increment();
+	}
+
+	@Override
+	public void circuitStateChanged(final String host, final CircuitState state) {
+		circuitStates.put(host, state);
+	}
+
+	@Override
+	public void hostsChanged(final List<String> hosts) {
+		this.hosts = Collections.unmodifiableList(new ArrayList<>(hosts));
+	}
+
+	@Override
+	public void healthChecked(final String host, final boolean healthy, final long durationNanos) {
+		healthChecks.increment();
+		if (!healthy) {
+			failedHealthChecks.increment();
+		}
+	}
+
+	/**
+	 * @param type
+	 *            request type
+	 * @return latency in nanoseconds of the operations with the given request type
+	 */
+	public LatencyHistogram getLatency(final RequestType type) {
+		return latencies[type.ordinal()];
+	}
+
+	/**
+	 * @param operation
+	 *            name of the operation, e.g. <code>GET /_api/document/{handle}</code>
+	 * @return latency in nanoseconds of the operation, null if it was not executed
+	 */
+	public LatencyHistogram getLatency(final String operation) {
+		return operationLatencies.get(operation);
+	}
+
+	/**
+	 * @return latency in nanoseconds by operation name, for the first 256 operations executed
+	 */
+	public Map<String, LatencyHistogram> getLatencies() {
+		return Collections.unmodifiableMap(operationLatencies);
+	}
+
+	/**
+	 * @return time in nanoseconds messages waited for a connection to become available for writing
+	 */
+	public LatencyHistogram getQueueWait() {
+		return queueWait;
+	}
+
+	public long getOperations() {
+		return operations.sum();
+	}
+
+	public long getFailedOperations() {
+		return failedOperations.sum();
+	}
+
+	/**
+	 * @param responseCode
+	 *            response code, 0 for failures without a response
+	 * @return number of errors with the given response code
+	 */
+	public long getErrors(final int responseCode) {
+		return responseCode >= 0 && responseCode < MAX_RESPONSE_CODE ? errors.get(responseCode) : 0;
+	}
+
+	public long getBytesSent() {
+		return bytesSent.sum();
+	}
+
+	public long getBytesReceived() {
+		return bytesReceived.sum();
+	}
+
+	public long getMessagesSent() {
+		return messagesSent.sum();
+	}
+
+	public long getMessagesReceived() {
+		return messagesReceived.sum();
+	}
+
+	public long getChunksSent() {
+		return chunksSent.sum();
+	}
+
+	/**
+	 * @return messages sent but not yet answered, over all connections
+	 */
+	public long getInFlight() {
+		return messagesSent.sum() - messagesReceived.sum();
+	}
+
+	/**
+	 * @return the highest number of messages in flight on a single connection
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight.get();
+	}
+
+	/**
+	 * @return number of connections added to the pool
+	 */
+	public long getOpenedConnections() {
+		return openedConnections.sum();
+	}
+
+	/**
+	 * @return number of connections closed
+	 */
+	public long getClosedConnections() {
+		return closedConnections.sum();
+	}
+
+	/**
+	 * @return number of connections currently in the pool, over all hosts
+	 */
+	public long getConnections() {
+		return openedConnections.sum() - closedConnections.sum();
+	}
+
+	/**
+	 * @return number of requests sent again after a transient failure
+	 */
+	public long getRetriedRequests() {
+		return retriedRequests.sum();
+	}
+
+	/**
+	 * @return number of duplicate requests sent by hedging
+	 */
+	public long getHedgedRequests() {
+		return hedgedRequests.sum();
+	}
+
+	/**
+	 * @param host
+	 *            address of the host as <code>host:port</code>
+	 * @return state of the circuit breaker of the host, {@link CircuitState#CLOSED} if it never changed
+	 */
+	public CircuitState getCircuitState(final String host) {
+		return circuitStates.getOrDefault(host, CircuitState.CLOSED);
+	}
+
+	/**
+	 * @return state of the circuit breakers by host address, for the hosts whose circuit state changed at least once
+	 */
+	public Map<String, CircuitState> getCircuitStates() {
+		return Collections.unmodifiableMap(circuitStates);
+	}
+
+	/**
+	 * @return addresses of the hosts acquired from the cluster at the last change, empty if they never changed
+	 */
+	public List<String> getHosts() {
+		return hosts;
+	}
+
+	public long getHealthChecks() {
+		return healthChecks.sum();
+	}
+
+	public long getFailedHealthChecks() {
+		return failedHealthChecks.sum();
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.metrics;
+
+/**
+ * State of the circuit breaker of a host.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public enum CircuitState {
+
+	/**
+	 * The host receives requests
+	 */
+	CLOSED,
+
+	/**
+	 * The host failed and receives no requests until the open duration elapsed
+	 */
+	OPEN,
+
+	/**
+	 * A single probe is sent to the host, which closes the circuit on success and opens it again on failure
+	 */
+	HALF_OPEN
+
+}
@@ -0,0 +1,130 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of non-negative values with a fixed memory footprint, using logarithmic buckets with a
+ * linear subdivision like HdrHistogram. Values are recorded with a precision of about 6%, recording does not
+ * allocate.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts;
+	private final AtomicLong max;
+
+	public LatencyHistogram() {
+		super();
+		counts = new AtomicLongArray(BUCKETS);
+		max = new AtomicLong();
+	}
+
+	static int index(final long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long highestValue(final int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		final long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+		return ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/**
+	 * @param value
+	 *            value to record, negative values are recorded as 0
+	 */
+	public void record(final long value) {
+		final long v = Math.max(value, 0L);
+		counts.incrementAndGet(index(v));
+		long current = max.get();
+		while (v > current && !max.compareAndSet(current, v)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * @return number of recorded values
+	 */
+	public long getCount() {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			count += counts.get(i);
+		}
+		return count;
+	}
+
+	/**
+	 * @return the highest recorded value
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @param percentile
+	 *            percentile between 0 and 100, e.g. 99.9
+	 * @return the value below or equal to which the given percentage of the recorded values lie, 0 if nothing was
+	 *         recorded
+	 */
+	public long getValueAtPercentile(final double percentile) {
+		final long count = getCount();
+		if (count == 0) {
+			return 0;
+		}
+		final long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highestValue(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Removes all recorded values
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		max.set(0);
+	}
+
+}
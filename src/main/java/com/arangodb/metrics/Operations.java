@@ -0,0 +1,179 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.metrics;
+
+import java.util.Arrays;
+
+import com.arangodb.velocystream.Request;
+
+/**
+ * Names the operation of a request by its request type and a path template, in which the names, keys and ids in the
+ * path are replaced by placeholders, e.g. <code>GET /_api/document/{handle}</code> or
+ * <code>PUT /_api/collection/{id}/properties</code>. Requests for different documents, collections or cursors have
+ * the same name, so that the names can be used as keys of per-operation metrics.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public final class Operations {
+
+	private static final String ID = "{id}";
+	private static final String HANDLE = "{handle}";
+	// path segments of the HTTP API which are not names, keys or ids
+	private static final String[] LITERALS = { "all", "any", "by-example", "checksum", "count", "current", "database",
+			"edge", "engine", "explain", "figures", "first-example", "fulltext", "import", "load", "lookup-by-keys",
+			"near", "permissions", "properties", "range", "remove-by-keys", "rename", "revision", "role", "rotate",
+			"slow", "truncate", "unload", "user", "vertex", "within" };
+	private static final ThreadLocal<Name> NAMES = ThreadLocal.withInitial(Name::new);
+
+	/**
+	 * The name of an operation, written into a buffer of the calling thread, so that it can be looked up without
+	 * creating a string for every request. Only valid until the next call of {@link Operations#current(Request)} on
+	 * the same thread.
+	 */
+	static final class Name {
+		private char[] chars;
+		private int length;
+		private int hash;
+
+		private Name() {
+			super();
+			chars = new char[64];
+		}
+
+		private void append(final char c) {
+			if (length == chars.length) {
+				chars = Arrays.copyOf(chars, length * 2);
+			}
+			chars[length++] = c;
+			hash = 31 * hash + c;
+		}
+
+		private void append(final String s, final int start, final int end) {
+			for (int i = start; i < end; i++) {
+				append(s.charAt(i));
+			}
+		}
+
+		private void append(final String s) {
+			append(s, 0, s.length());
+		}
+
+		/**
+		 * @return the same value as {@link String#hashCode()} of the name
+		 */
+		int hash() {
+			return hash;
+		}
+
+		boolean contentEquals(final String name) {
+			if (name.length() != length) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (name.charAt(i) != chars[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return new String(chars, 0, length);
+		}
+	}
+
+	private Operations() {
+		super();
+	}
+
+	/**
+	 * @return the name of the operation of the request, like <code>GET /_api/document/{handle}</code>
+	 */
+	public static String name(final Request request) {
+		return current(request).toString();
+	}
+
+	/**
+	 * Like {@link #name(Request)}, without allocating
+	 */
+	static Name current(final Request request) {
+		final Name name = NAMES.get();
+		name.length = 0;
+		name.hash = 0;
+		name.append(request.getRequestType().name());
+		name.append(' ');
+		final String path = request.getRequest();
+		if (path == null || path.isEmpty()) {
+			name.append('/');
+			return name;
+		}
+		boolean api = false;
+		int variables = 0;
+		int index = 0;
+		int start = 0;
+		while (start <= path.length()) {
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = path.length();
+			}
+			if (end > start) {
+				if (index == 0) {
+					api = path.charAt(start) == '_';
+				}
+				// the first segment, and the second one of the server APIs (/_api, /_admin), are fixed
+				final boolean literal = index == 0 || (index == 1 && api) || isLiteral(path, start, end);
+				index++;
+				if (literal) {
+					appendVariables(name, variables);
+					variables = 0;
+					name.append('/');
+					name.append(path, start, end);
+				} else {
+					variables++;
+				}
+			}
+			start = end + 1;
+		}
+		appendVariables(name, variables);
+		return name;
+	}
+
+	private static boolean isLiteral(final String path, final int start, final int end) {
+		final int length = end - start;
+		for (final String literal : LITERALS) {
+			if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void appendVariables(final Name name, final int variables) {
+		if (variables > 0) {
+			// a collection and a key form a document handle
+			name.append('/');
+			name.append(variables > 1 ? HANDLE : ID);
+		}
+	}
+
+}
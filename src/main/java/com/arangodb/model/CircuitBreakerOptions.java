@@ -0,0 +1,98 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.model;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class CircuitBreakerOptions {
+
+	private Double failureRateThreshold;
+	private Integer minimumRequests;
+	private Integer slowRequestThreshold;
+	private Integer openDuration;
+
+	public CircuitBreakerOptions() {
+		super();
+	}
+
+	public Double getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	/**
+	 * @param failureRateThreshold
+	 *            share of failed requests, between 0 and 1, at which the circuit of a host opens. Failed requests are
+	 *            requests without a response, with a response code of 500 or higher, or slower than
+	 *            {@link #slowRequestThreshold(Integer)}. Default: 0.5
+	 * @return options
+	 */
+	public CircuitBreakerOptions failureRateThreshold(final Double failureRateThreshold) {
+		this.failureRateThreshold = failureRateThreshold;
+		return this;
+	}
+
+	public Integer getMinimumRequests() {
+		return minimumRequests;
+	}
+
+	/**
+	 * @param minimumRequests
+	 *            number of requests the failure rate is averaged over. The circuit does not open before a host
+	 *            answered this number of requests. Default: 20
+	 * @return options
+	 */
+	public CircuitBreakerOptions minimumRequests(final Integer minimumRequests) {
+		this.minimumRequests = minimumRequests;
+		return this;
+	}
+
+	public Integer getSlowRequestThreshold() {
+		return slowRequestThreshold;
+	}
+
+	/**
+	 * @param slowRequestThreshold
+	 *            time in milliseconds after which a request counts as failed. Default: disabled
+	 * @return options
+	 */
+	public CircuitBreakerOptions slowRequestThreshold(final Integer slowRequestThreshold) {
+		this.slowRequestThreshold = slowRequestThreshold;
+		return this;
+	}
+
+	public Integer getOpenDuration() {
+		return openDuration;
+	}
+
+	/**
+	 * @param openDuration
+	 *            time in milliseconds no requests are sent to a host after its circuit opened. Afterwards a single
+	 *            request, or the next health check, probes the host and closes the circuit on success. Default: 10000
+	 * @return options
+	 */
+	public CircuitBreakerOptions openDuration(final Integer openDuration) {
+		this.openDuration = openDuration;
+		return this;
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.model;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class ConnectionGroupOptions {
+
+	private Integer maxConnections;
+	private Integer chunksize;
+
+	public ConnectionGroupOptions() {
+		super();
+	}
+
+	public Integer getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * @param maxConnections
+	 *            maximum number of connections of the group per host. Default: the maximum of the driver
+	 * @return options
+	 */
+	public ConnectionGroupOptions maxConnections(final Integer maxConnections) {
+		this.maxConnections = maxConnections;
+		return this;
+	}
+
+	public Integer getChunksize() {
+		return chunksize;
+	}
+
+	/**
+	 * @param chunksize
+	 *            maximum size in bytes of the chunks messages of the group are split into. Default: the chunksize of
+	 *            the driver
+	 * @return options
+	 */
+	public ConnectionGroupOptions chunksize(final Integer chunksize) {
+		this.chunksize = chunksize;
+		return this;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.model;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class ConnectionPoolOptions {
+
+	private Integer minConnections;
+	private Integer inFlightThreshold;
+	private Integer idleTimeout;
+
+	public ConnectionPoolOptions() {
+		super();
+	}
+
+	public Integer getMinConnections() {
+		return minConnections;
+	}
+
+	/**
+	 * @param minConnections
+	 *            number of connections per host which are kept open even when idle. Default: 1
+	 * @return options
+	 */
+	public ConnectionPoolOptions minConnections(final Integer minConnections) {
+		this.minConnections = minConnections;
+		return this;
+	}
+
+	public Integer getInFlightThreshold() {
+		return inFlightThreshold;
+	}
+
+	/**
+	 * @param inFlightThreshold
+	 *            average number of requests per connection waiting for a response, above which another connection is
+	 *            opened. Default: 8
+	 * @return options
+	 */
+	public ConnectionPoolOptions inFlightThreshold(final Integer inFlightThreshold) {
+		this.inFlightThreshold = inFlightThreshold;
+		return this;
+	}
+
+	public Integer getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * @param idleTimeout
+	 *            time in milliseconds after which a connection without requests is closed, as long as more than the
+	 *            minimum number of connections are open. Default: 60000
+	 * @return options
+	 */
+	public ConnectionPoolOptions idleTimeout(final Integer idleTimeout) {
+		this.idleTimeout = idleTimeout;
+		return this;
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.model;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentBulkOptions {
+
+	private Integer batchSize;
+	private Integer maxPendingBatches;
+
+	public DocumentBulkOptions() {
+		super();
+	}
+
+	public Integer getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @param batchSize
+	 *            maximum number of documents sent in one request. Default: 1000
+	 * @return options
+	 */
+	public DocumentBulkOptions batchSize(final Integer batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	public Integer getMaxPendingBatches() {
+		return maxPendingBatches;
+	}
+
+	/**
+	 * @param maxPendingBatches
+	 *            maximum number of requests sent without having received their responses. Default: 4
+	 * @return options
+	 */
+	public DocumentBulkOptions maxPendingBatches(final Integer maxPendingBatches) {
+		this.maxPendingBatches = maxPendingBatches;
+		return this;
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.model;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentExportOptions {
+
+	public enum Format {
+		/**
+		 * one Json document per line (NDJSON)
+		 */
+		JSON,
+		/**
+		 * every VelocyPack document prefixed with its length as a 4 byte little-endian integer
+		 */
+		VPACK
+	}
+
+	private Integer batchSize;
+	private Integer ttl;
+	private Format format;
+	private String startAfter;
+
+	public DocumentExportOptions() {
+		super();
+	}
+
+	public Integer getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @param batchSize
+	 *            maximum number of documents transferred from the server to the client in one roundtrip
+	 * @return options
+	 */
+	public DocumentExportOptions batchSize(final Integer batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	public Integer getTtl() {
+		return ttl;
+	}
+
+	/**
+	 * @param ttl
+	 *            The time-to-live for the server-side cursor (in seconds). The cursor will be removed on the server
+	 *            automatically after the specified amount of time.
+	 * @return options
+	 */
+	public DocumentExportOptions ttl(final Integer ttl) {
+		this.ttl = ttl;
+		return this;
+	}
+
+	public Format getFormat() {
+		return format;
+	}
+
+	/**
+	 * @param format
+	 *            the format the documents are written in. Default: {@link Format#JSON}
+	 * @return options
+	 */
+	public DocumentExportOptions format(final Format format) {
+		this.format = format;
+		return this;
+	}
+
+	public String getStartAfter() {
+		return startAfter;
+	}
+
+	/**
+	 * @param startAfter
+	 *            only documents with a _key greater than the given one are exported. Use the last exported _key of a
+	 *            previous (aborted) export to resume it.
+	 * @return options
+	 */
+	public DocumentExportOptions startAfter(final String startAfter) {
+		this.startAfter = startAfter;
+		return this;
+	}
+
+}
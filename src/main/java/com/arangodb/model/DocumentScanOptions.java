@@ -0,0 +1,115 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.model;
+
+import java.util.Collection;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class DocumentScanOptions {
+
+	private Integer partitions;
+	private Integer samples;
+	private Collection<String> boundaries;
+	private Integer batchSize;
+	private Integer ttl;
+
+	public DocumentScanOptions() {
+		super();
+	}
+
+	public Integer getPartitions() {
+		return partitions;
+	}
+
+	/**
+	 * @param partitions
+	 *            number of key ranges the collection is split into. Every range is read by its own cursor. Ignored if
+	 *            {@link #boundaries(Collection)} is set. Default: 4
+	 * @return options
+	 */
+	public DocumentScanOptions partitions(final Integer partitions) {
+		this.partitions = partitions;
+		return this;
+	}
+
+	public Integer getSamples() {
+		return samples;
+	}
+
+	/**
+	 * @param samples
+	 *            number of randomly chosen keys per partition which are used to find the boundaries of the key ranges.
+	 *            More samples result in more evenly sized partitions. Default: 16
+	 * @return options
+	 */
+	public DocumentScanOptions samples(final Integer samples) {
+		this.samples = samples;
+		return this;
+	}
+
+	public Collection<String> getBoundaries() {
+		return boundaries;
+	}
+
+	/**
+	 * @param boundaries
+	 *            sorted _key values at which the collection is split. n boundaries result in n+1 partitions. If set, no
+	 *            sampling takes place.
+	 * @return options
+	 */
+	public DocumentScanOptions boundaries(final Collection<String> boundaries) {
+		this.boundaries = boundaries;
+		return this;
+	}
+
+	public Integer getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @param batchSize
+	 *            maximum number of result documents to be transferred from the server to the client in one roundtrip
+	 * @return options
+	 */
+	public DocumentScanOptions batchSize(final Integer batchSize) {
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	public Integer getTtl() {
+		return ttl;
+	}
+
+	/**
+	 * @param ttl
+	 *            The time-to-live for the server-side cursors (in seconds). The cursors will be removed on the server
+	 *            automatically after the specified amount of time.
+	 * @return options
+	 */
+	public DocumentScanOptions ttl(final Integer ttl) {
+		this.ttl = ttl;
+		return this;
+	}
+
+}
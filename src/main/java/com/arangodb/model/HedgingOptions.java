@@ -0,0 +1,83 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.model;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class HedgingOptions {
+
+	private Double percentile;
+	private Integer delay;
+	private Double budget;
+
+	public HedgingOptions() {
+		super();
+	}
+
+	public Double getPercentile() {
+		return percentile;
+	}
+
+	/**
+	 * @param percentile
+	 *            percentile, between 0 and 100, of the response times of the hedged operations after which a
+	 *            duplicate request is sent. It is measured over the last 1000 requests, no duplicates are sent before
+	 *            the first 1000 requests completed. Default: 95
+	 * @return options
+	 */
+	public HedgingOptions percentile(final Double percentile) {
+		this.percentile = percentile;
+		return this;
+	}
+
+	public Integer getDelay() {
+		return delay;
+	}
+
+	/**
+	 * @param delay
+	 *            fixed time in milliseconds after which a duplicate request is sent, replaces
+	 *            {@link #percentile(Double)}. Default: not set
+	 * @return options
+	 */
+	public HedgingOptions delay(final Integer delay) {
+		this.delay = delay;
+		return this;
+	}
+
+	public Double getBudget() {
+		return budget;
+	}
+
+	/**
+	 * @param budget
+	 *            maximum number of duplicate requests per hedged operation, e.g. 0.05 for at most 5% additional load.
+	 *            Default: 0.05
+	 * @return options
+	 */
+	public HedgingOptions budget(final Double budget) {
+		this.budget = budget;
+		return this;
+	}
+
+}
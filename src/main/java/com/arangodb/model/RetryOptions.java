@@ -0,0 +1,96 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.model;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class RetryOptions {
+
+	private Integer maxAttempts;
+	private Integer initialBackoff;
+	private Integer maxBackoff;
+	private Double budget;
+
+	public RetryOptions() {
+		super();
+	}
+
+	public Integer getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * @param maxAttempts
+	 *            maximum number of times a request is sent, including the first attempt. Default: 3
+	 * @return options
+	 */
+	public RetryOptions maxAttempts(final Integer maxAttempts) {
+		this.maxAttempts = maxAttempts;
+		return this;
+	}
+
+	public Integer getInitialBackoff() {
+		return initialBackoff;
+	}
+
+	/**
+	 * @param initialBackoff
+	 *            upper bound in milliseconds of the random delay before the first retry, doubled for every further
+	 *            retry. Default: 10
+	 * @return options
+	 */
+	public RetryOptions initialBackoff(final Integer initialBackoff) {
+		this.initialBackoff = initialBackoff;
+		return this;
+	}
+
+	public Integer getMaxBackoff() {
+		return maxBackoff;
+	}
+
+	/**
+	 * @param maxBackoff
+	 *            maximum delay in milliseconds before a retry. Default: 1000
+	 * @return options
+	 */
+	public RetryOptions maxBackoff(final Integer maxBackoff) {
+		this.maxBackoff = maxBackoff;
+		return this;
+	}
+
+	public Double getBudget() {
+		return budget;
+	}
+
+	/**
+	 * @param budget
+	 *            maximum number of retries per request, e.g. 0.1 for at most 10% additional load, plus a burst of 10
+	 *            retries. Default: 0.1
+	 * @return options
+	 */
+	public RetryOptions budget(final Double budget) {
+		this.budget = budget;
+		return this;
+	}
+
+}
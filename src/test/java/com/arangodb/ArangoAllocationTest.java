@@ -0,0 +1,220 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.metrics.ArangoMetricsRecorder;
+import com.arangodb.model.AqlQueryOptions;
+import com.arangodb.stub.VstStubServer;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+
+/**
+ * Checks the bytes allocated per operation against the baselines recorded in
+ * <code>allocation-budget.properties</code> to catch allocation regressions in the request path. An operation may
+ * allocate up to {@link #TOLERANCE} more than its baseline. Allocations are measured with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long[])} over the threads which live during the
+ * whole measurement, except those of the in-process {@link VstStubServer}. Run with
+ * <code>-Dallocation.record=true</code> to record new baselines instead, they are logged and written to
+ * <code>target/allocation-budget.properties</code>.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class ArangoAllocationTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ArangoAllocationTest.class);
+
+	private static final String BUDGET_FILE = "/allocation-budget.properties";
+	private static final String RECORD_FILE = "target/allocation-budget.properties";
+	private static final double TOLERANCE = 0.2;
+	private static final String STUB_THREAD_PREFIX = "vst-stub";
+	private static final String QUERY = "FOR i IN allocation RETURN i";
+	private static final int BATCH_SIZE = 100;
+	private static final int WARMUP = 5000;
+	private static final int ITERATIONS = 5000;
+
+	private static com.sun.management.ThreadMXBean threadBean;
+	private static Properties budgets;
+	private static Properties recorded;
+	private static VstStubServer server;
+	private static ArangoDBAsync arangoDB;
+	private static ArangoCollectionAsync collection;
+
+	@BeforeClass
+	public static void init() throws Exception {
+		Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		budgets = new Properties();
+		try (InputStream in = ArangoAllocationTest.class.getResourceAsStream(BUDGET_FILE)) {
+			budgets.load(in);
+		}
+		recorded = new Properties();
+		final List<BaseDocument> result = new ArrayList<>();
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			final BaseDocument document = new BaseDocument(String.valueOf(i));
+			document.addAttribute("value", i);
+			result.add(document);
+		}
+		server = new VstStubServer.Builder().query(QUERY, result).build();
+		arangoDB = new ArangoDBAsync.Builder().clearHosts().host(server.getHost(), server.getPort()).build();
+		collection = arangoDB.db().collection("allocation");
+		final BaseDocument document = new BaseDocument("existing");
+		document.addAttribute("value", "test");
+		collection.insertDocument(document).get();
+	}
+
+	@AfterClass
+	public static void shutdown() throws IOException {
+		if (recorded != null && !recorded.isEmpty()) {
+			try (OutputStream out = new FileOutputStream(RECORD_FILE)) {
+				recorded.store(out, "Baseline bytes allocated per operation by ArangoAllocationTest");
+			}
+			LOGGER.info(String.format("Recorded allocation baselines to %s", RECORD_FILE));
+		}
+		if (arangoDB != null) {
+			arangoDB.shutdown();
+		}
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	/**
+	 * @return bytes allocated so far by id of every live thread, except those of the stub server
+	 */
+	private static Map<Long, Long> allocatedBytes() {
+		final long[] ids = threadBean.getAllThreadIds();
+		final ThreadInfo[] infos = threadBean.getThreadInfo(ids);
+		final long[] allocated = threadBean.getThreadAllocatedBytes(ids);
+		final Map<Long, Long> bytes = new HashMap<>();
+		for (int i = 0; i < ids.length; i++) {
+			if (infos[i] != null && !infos[i].getThreadName().startsWith(STUB_THREAD_PREFIX) && allocated[i] >= 0) {
+				bytes.put(ids[i], allocated[i]);
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return bytes allocated since the given snapshot by the threads which were alive at both points in time. A
+	 *         thread started or terminated in between is left out, its counter does not cover the whole interval.
+	 */
+	private static long allocatedSince(final Map<Long, Long> before) {
+		long bytes = 0;
+		for (final Entry<Long, Long> after : allocatedBytes().entrySet()) {
+			final Long start = before.get(after.getKey());
+			if (start != null) {
+				bytes += after.getValue() - start;
+			}
+		}
+		return bytes;
+	}
+
+	private static void checkBudget(final String operation, final Callable<?> callable) throws Exception {
+		for (int i = 0; i < WARMUP; i++) {
+			callable.call();
+		}
+		final Map<Long, Long> before = allocatedBytes();
+		for (int i = 0; i < ITERATIONS; i++) {
+			callable.call();
+		}
+		final long perOperation = allocatedSince(before) / ITERATIONS;
+		if (Boolean.getBoolean("allocation.record")) {
+			LOGGER.info(String.format("%s=%s", operation, perOperation));
+			recorded.setProperty(operation, String.valueOf(perOperation));
+			return;
+		}
+		final long baseline = Long.parseLong(budgets.getProperty(operation));
+		assertThat(operation, perOperation, lessThanOrEqualTo((long) (baseline * (1 + TOLERANCE))));
+	}
+
+	@Test
+	public void getDocument() throws Exception {
+		checkBudget("getDocument", () -> collection.getDocument("existing", BaseDocument.class).get());
+	}
+
+	@Test
+	public void insertDocument() throws Exception {
+		checkBudget("insertDocument", () -> {
+			final BaseDocument document = new BaseDocument();
+			document.addAttribute("value", "test");
+			return collection.insertDocument(document).get();
+		});
+	}
+
+	@Test
+	public void documentExists() throws Exception {
+		checkBudget("documentExists", () -> collection.documentExists("existing").get());
+	}
+
+	@Test
+	public void operationMetrics() {
+		final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+		final Request request = new Request("_system", RequestType.GET, "/_api/document/allocation/existing");
+		for (int i = 0; i < WARMUP; i++) {
+			metrics.operationCompleted(request, i, true);
+		}
+		final long id = Thread.currentThread().getId();
+		final long before = threadBean.getThreadAllocatedBytes(id);
+		for (int i = 0; i < ITERATIONS; i++) {
+			metrics.operationCompleted(request, i, true);
+		}
+		final long perOperation = (threadBean.getThreadAllocatedBytes(id) - before) / ITERATIONS;
+		assertThat(perOperation, is(0L));
+		assertThat(metrics.getLatency("GET /_api/document/{handle}").getCount(), is((long) WARMUP + ITERATIONS));
+	}
+
+	@Test
+	public void cursorBatch() throws Exception {
+		final AqlQueryOptions options = new AqlQueryOptions().batchSize(BATCH_SIZE);
+		checkBudget("cursorBatch",
+			() -> arangoDB.db().query(QUERY, null, options, BaseDocument.class).get().asListRemaining());
+	}
+
+}
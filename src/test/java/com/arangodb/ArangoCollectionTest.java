@@ -34,14 +34,26 @@ import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -53,8 +65,10 @@ import com.arangodb.entity.CollectionEntity;
 import com.arangodb.entity.CollectionPropertiesEntity;
 import com.arangodb.entity.CollectionRevisionEntity;
 import com.arangodb.entity.CollectionType;
+import com.arangodb.entity.DocumentBulkEntity;
 import com.arangodb.entity.DocumentCreateEntity;
 import com.arangodb.entity.DocumentDeleteEntity;
+import com.arangodb.entity.DocumentExportEntity;
 import com.arangodb.entity.DocumentImportEntity;
 import com.arangodb.entity.DocumentUpdateEntity;
 import com.arangodb.entity.IndexEntity;
@@ -64,13 +78,16 @@ import com.arangodb.entity.Permissions;
 import com.arangodb.entity.ServerRole;
 import com.arangodb.model.CollectionCreateOptions;
 import com.arangodb.model.CollectionPropertiesOptions;
+import com.arangodb.model.DocumentBulkOptions;
 import com.arangodb.model.DocumentCreateOptions;
 import com.arangodb.model.DocumentDeleteOptions;
 import com.arangodb.model.DocumentExistsOptions;
+import com.arangodb.model.DocumentExportOptions;
 import com.arangodb.model.DocumentImportOptions;
 import com.arangodb.model.DocumentImportOptions.OnDuplicate;
 import com.arangodb.model.DocumentReadOptions;
 import com.arangodb.model.DocumentReplaceOptions;
+import com.arangodb.model.DocumentScanOptions;
 import com.arangodb.model.DocumentUpdateOptions;
 
 /**
@@ -274,6 +291,56 @@ public class ArangoCollectionTest extends BaseTest {
 		}
 	}
 
+	@Test
+	public void getDocumentsSplit() throws InterruptedException, ExecutionException {
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().maxBatchDocuments(2).build();
+		try {
+			final ArangoCollectionAsync collection = arangoDB.db(TEST_DB).collection(COLLECTION_NAME);
+			final Collection<BaseDocument> values = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				values.add(new BaseDocument(String.valueOf(i)));
+			}
+			collection.insertDocuments(values).get();
+			final MultiDocumentEntity<BaseDocument> documents = collection
+					.getDocuments(Arrays.asList("4", "3", "no", "1", "0", "2"), BaseDocument.class).get();
+			assertThat(documents.getDocuments().size(), is(5));
+			assertThat(documents.getErrors().size(), is(1));
+			final List<String> keys = new ArrayList<>();
+			for (final BaseDocument document : documents.getDocuments()) {
+				keys.add(document.getKey());
+			}
+			assertThat(keys, is(Arrays.asList("4", "3", "1", "0", "2")));
+		} finally {
+			arangoDB.shutdown();
+		}
+	}
+
+	@Test
+	public void getDocumentsParallelDeserialization() throws InterruptedException, ExecutionException {
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().parallelDeserializationThreshold(10).build();
+		try {
+			final ArangoCollectionAsync collection = arangoDB.db(TEST_DB).collection(COLLECTION_NAME);
+			final Collection<BaseDocument> values = new ArrayList<>();
+			final List<String> keys = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				values.add(new BaseDocument(String.valueOf(i)));
+				keys.add(String.valueOf(i));
+			}
+			collection.insertDocuments(values).get();
+			keys.add("no");
+			final MultiDocumentEntity<BaseDocument> documents = collection.getDocuments(keys, BaseDocument.class)
+					.get();
+			assertThat(documents.getDocuments().size(), is(500));
+			assertThat(documents.getErrors().size(), is(1));
+			int i = 0;
+			for (final BaseDocument document : documents.getDocuments()) {
+				assertThat(document.getKey(), is(String.valueOf(i++)));
+			}
+		} finally {
+			arangoDB.shutdown();
+		}
+	}
+
 	@Test
 	public void getDocumentsNotFound() throws InterruptedException, ExecutionException {
 		final MultiDocumentEntity<BaseDocument> readResult = db.collection(COLLECTION_NAME)
@@ -1218,6 +1285,192 @@ public class ArangoCollectionTest extends BaseTest {
 		f.get();
 	}
 
+	@Test
+	public void exportDocuments() throws InterruptedException, ExecutionException, IOException {
+		final Collection<BaseDocument> values = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			values.add(new BaseDocument(String.valueOf(i)));
+		}
+		db.collection(COLLECTION_NAME).insertDocuments(values).get();
+		final Path file = Files.createTempFile(COLLECTION_NAME, ".json");
+		try {
+			final DocumentExportEntity export = db.collection(COLLECTION_NAME)
+					.exportDocuments(file, new DocumentExportOptions().batchSize(2)).get();
+			assertThat(export.getDocuments(), is(5L));
+			assertThat(export.getBytes(), is(Files.size(file)));
+			assertThat(export.getLastKey(), is("5"));
+			final List<String> lines = Files.readAllLines(file);
+			assertThat(lines.size(), is(5));
+			assertThat(lines.get(0), containsString("\"_key\":\"1\""));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void exportDocumentsResume() throws InterruptedException, ExecutionException, IOException {
+		final Collection<BaseDocument> values = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			values.add(new BaseDocument(String.valueOf(i)));
+		}
+		db.collection(COLLECTION_NAME).insertDocuments(values).get();
+		final Path file = Files.createTempFile(COLLECTION_NAME, ".vpack");
+		try {
+			final DocumentExportEntity export = db.collection(COLLECTION_NAME).exportDocuments(file,
+				new DocumentExportOptions().startAfter("3").format(DocumentExportOptions.Format.VPACK)).get();
+			assertThat(export.getDocuments(), is(2L));
+			assertThat(export.getLastKey(), is("5"));
+			assertThat(export.getBytes(), is(Files.size(file)));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void exportDocumentsWriteFailure() throws InterruptedException, ExecutionException, IOException {
+		final Collection<BaseDocument> values = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			values.add(new BaseDocument(String.valueOf(i)));
+		}
+		db.collection(COLLECTION_NAME).insertDocuments(values).get();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final WritableByteChannel target = Channels.newChannel(out);
+		final AtomicInteger writes = new AtomicInteger();
+		// fails writing the second batch
+		final WritableByteChannel failing = new WritableByteChannel() {
+			@Override
+			public int write(final ByteBuffer src) throws IOException {
+				if (writes.incrementAndGet() > 1) {
+					throw new IOException("disk full");
+				}
+				return target.write(src);
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		DocumentExportEntity partial = null;
+		try {
+			db.collection(COLLECTION_NAME).exportDocuments(failing, new DocumentExportOptions().batchSize(2)).get();
+			fail();
+		} catch (final ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(DocumentExportException.class));
+			partial = ((DocumentExportException) e.getCause()).getPartialResult();
+		}
+		assertThat(partial.getDocuments(), is(2L));
+		assertThat(partial.getLastKey(), is("2"));
+		assertThat(partial.getBytes(), is((long) out.size()));
+		final DocumentExportEntity rest = db.collection(COLLECTION_NAME)
+				.exportDocuments(target, new DocumentExportOptions().batchSize(2).startAfter(partial.getLastKey()))
+				.get();
+		assertThat(rest.getDocuments(), is(3L));
+		assertThat(rest.getLastKey(), is("5"));
+		final String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		assertThat(lines.length, is(5));
+		assertThat(lines[4], containsString("\"_key\":\"5\""));
+	}
+
+	@Test
+	public void scanDocuments() throws InterruptedException, ExecutionException {
+		final Collection<BaseDocument> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(new BaseDocument(String.format("%03d", i)));
+		}
+		db.collection(COLLECTION_NAME).insertDocuments(values).get();
+		final List<ArangoCursorAsync<BaseDocument>> cursors = db.collection(COLLECTION_NAME)
+				.scanDocuments(BaseDocument.class, new DocumentScanOptions().partitions(4).batchSize(10)).get();
+		assertThat(cursors.size(), is(4));
+		final Collection<String> keys = new HashSet<>();
+		for (final ArangoCursorAsync<BaseDocument> cursor : cursors) {
+			for (final BaseDocument doc : cursor.asListRemaining()) {
+				assertThat(keys.add(doc.getKey()), is(true));
+			}
+		}
+		assertThat(keys.size(), is(100));
+	}
+
+	@Test
+	public void scanDocumentsWithBoundaries() throws InterruptedException, ExecutionException {
+		final Collection<BaseDocument> values = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			values.add(new BaseDocument(String.valueOf(i)));
+		}
+		db.collection(COLLECTION_NAME).insertDocuments(values).get();
+		final List<ArangoCursorAsync<BaseDocument>> cursors = db.collection(COLLECTION_NAME)
+				.scanDocuments(BaseDocument.class, new DocumentScanOptions().boundaries(Arrays.asList("3", "7")))
+				.get();
+		assertThat(cursors.size(), is(3));
+		assertThat(cursors.get(0).asListRemaining().size(), is(3));
+		assertThat(cursors.get(1).asListRemaining().size(), is(4));
+		assertThat(cursors.get(2).asListRemaining().size(), is(3));
+	}
+
+	@Test
+	public void scanDocumentsStream() throws InterruptedException, ExecutionException {
+		final Collection<BaseDocument> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(new BaseDocument());
+		}
+		db.collection(COLLECTION_NAME).insertDocuments(values).get();
+		final long count = db.collection(COLLECTION_NAME)
+				.scanDocumentsStream(BaseDocument.class, new DocumentScanOptions().partitions(3)).get().count();
+		assertThat(count, is(100L));
+	}
+
+	@Test
+	public void insertDocumentsSplit() throws InterruptedException, ExecutionException {
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().maxBatchDocuments(3).maxBatchBytes(100).build();
+		try {
+			final Collection<BaseDocument> values = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				final BaseDocument document = new BaseDocument(String.valueOf(i));
+				document.addAttribute("a", i % 2 == 0 ? "test" : "a much longer attribute value than the others");
+				values.add(document);
+			}
+			values.add(new BaseDocument("1"));
+			final MultiDocumentEntity<DocumentCreateEntity<BaseDocument>> docs = arangoDB.db(TEST_DB)
+					.collection(COLLECTION_NAME).insertDocuments(values).get();
+			assertThat(docs.getDocuments().size(), is(10));
+			assertThat(docs.getErrors().size(), is(1));
+			assertThat(docs.getDocumentsAndErrors().size(), is(11));
+			int i = 0;
+			for (final DocumentCreateEntity<BaseDocument> doc : docs.getDocuments()) {
+				assertThat(doc.getKey(), is(String.valueOf(i++)));
+			}
+		} finally {
+			arangoDB.shutdown();
+		}
+	}
+
+	@Test
+	public void insertDocumentsParallelSerialization() throws InterruptedException, ExecutionException {
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().parallelSerializationThreshold(10).build();
+		try {
+			final Collection<BaseDocument> values = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				final BaseDocument document = new BaseDocument(String.valueOf(i));
+				document.addAttribute("a", i);
+				values.add(document);
+			}
+			final MultiDocumentEntity<DocumentCreateEntity<BaseDocument>> docs = arangoDB.db(TEST_DB)
+					.collection(COLLECTION_NAME).insertDocuments(values).get();
+			assertThat(docs.getDocuments().size(), is(1000));
+			assertThat(docs.getErrors().size(), is(0));
+			int i = 0;
+			for (final DocumentCreateEntity<BaseDocument> doc : docs.getDocuments()) {
+				assertThat(doc.getKey(), is(String.valueOf(i++)));
+			}
+		} finally {
+			arangoDB.shutdown();
+		}
+	}
+
 	@Test
 	public void importDocuments() throws InterruptedException, ExecutionException {
 		final Collection<BaseDocument> values = new ArrayList<>();
@@ -1816,6 +2069,44 @@ public class ArangoCollectionTest extends BaseTest {
 		f.get();
 	}
 
+	@Test
+	public void bulkUpdateDocuments() throws InterruptedException, ExecutionException {
+		final Collection<BaseDocument> values = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			values.add(new BaseDocument(String.valueOf(i)));
+		}
+		db.collection(COLLECTION_NAME).insertDocuments(values).get();
+		final AtomicInteger consumed = new AtomicInteger();
+		final DocumentBulkEntity result = db.collection(COLLECTION_NAME)
+				.bulkUpdateDocuments(values.stream().peek(v -> v.addAttribute("a", "test")), null,
+					new DocumentBulkOptions().batchSize(10).maxPendingBatches(2),
+					docs -> consumed.addAndGet(docs.getDocuments().size()))
+				.get();
+		assertThat(result.getDocuments(), is(25L));
+		assertThat(result.getErrors(), is(0L));
+		assertThat(result.getBatches(), is(3L));
+		assertThat(consumed.get(), is(25));
+		final BaseDocument doc = db.collection(COLLECTION_NAME).getDocument("7", BaseDocument.class).get();
+		assertThat(String.valueOf(doc.getAttribute("a")), is("test"));
+	}
+
+	@Test
+	public void bulkDeleteDocuments() throws InterruptedException, ExecutionException {
+		final Collection<BaseDocument> values = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			values.add(new BaseDocument(String.valueOf(i)));
+		}
+		db.collection(COLLECTION_NAME).insertDocuments(values).get();
+		final DocumentBulkEntity result = db.collection(COLLECTION_NAME)
+				.bulkDeleteDocuments(Stream.of("1", "2", "3", "notExisting"), null, null,
+					new DocumentBulkOptions().batchSize(3), null)
+				.get();
+		assertThat(result.getDocuments(), is(3L));
+		assertThat(result.getErrors(), is(1L));
+		assertThat(result.getBatches(), is(2L));
+		assertThat(db.collection(COLLECTION_NAME).count().get().getCount(), is(7L));
+	}
+
 	@Test
 	public void updateDocumentsOne() throws InterruptedException, ExecutionException {
 		final Collection<BaseDocument> values = new ArrayList<>();
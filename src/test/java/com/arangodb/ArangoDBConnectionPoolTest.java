@@ -0,0 +1,191 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.arangodb.entity.ArangoDBVersion;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.metrics.ArangoMetricsRecorder;
+import com.arangodb.model.ConnectionGroupOptions;
+import com.arangodb.model.ConnectionPoolOptions;
+import com.arangodb.stub.VstStubServer;
+import com.arangodb.velocystream.RequestType;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class ArangoDBConnectionPoolTest {
+
+	private static ArangoDBAsync arangoDB(
+		final VstStubServer server,
+		final ConnectionPoolOptions options,
+		final ArangoMetricsRecorder metrics) {
+		return new ArangoDBAsync.Builder().clearHosts().host(server.getHost(), server.getPort()).maxConnections(4)
+				.connectionPool(options).metrics(metrics).build();
+	}
+
+	private static void burst(final ArangoDBAsync arangoDB, final int count) {
+		final List<CompletableFuture<ArangoDBVersion>> futures = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			futures.add(arangoDB.getVersion());
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+	}
+
+	@Test
+	public void keepMinimumWithoutLoad() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = arangoDB(server, new ConnectionPoolOptions(), metrics);
+			try {
+				for (int i = 0; i < 10; i++) {
+					arangoDB.getVersion().get();
+				}
+				assertThat(metrics.getOpenedConnections(), is(1L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void growWithLoad() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().latency(50, TimeUnit.MILLISECONDS).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = arangoDB(server, new ConnectionPoolOptions().inFlightThreshold(2), metrics);
+			try {
+				arangoDB.getVersion().get();
+				burst(arangoDB, 16);
+				assertThat(metrics.getOpenedConnections(), is(greaterThan(1L)));
+				assertThat(metrics.getConnections(), is(lessThanOrEqualTo(4L)));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void leastBusyConnection() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		try (VstStubServer server = new VstStubServer.Builder().route(RequestType.GET, "/_api/document/.*", request -> {
+			// blocks the connection, like a large response
+			release.await();
+			return null;
+		}).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort()).maxConnections(2).metrics(metrics).build();
+			try {
+				arangoDB.getVersion().get();
+				arangoDB.getVersion().get();
+				assertThat(metrics.getOpenedConnections(), is(2L));
+				final CompletableFuture<BaseDocument> busy = arangoDB.db().collection("stub").getDocument("1",
+					BaseDocument.class);
+				for (int i = 0; i < 10; i++) {
+					arangoDB.getVersion().get(1, TimeUnit.SECONDS);
+				}
+				release.countDown();
+				busy.handle((document, ex) -> null).get();
+			} finally {
+				release.countDown();
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void connectionGroup() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		try (VstStubServer server = new VstStubServer.Builder().route(RequestType.GET, "/_api/document/.*", request -> {
+			release.await();
+			return null;
+		}).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort())
+					.connectionGroup("bulk", new ConnectionGroupOptions().maxConnections(1).chunksize(1024 * 1024))
+					.metrics(metrics).build();
+			try {
+				final CompletableFuture<BaseDocument> busy = arangoDB.db().connectionGroup("bulk").collection("stub")
+						.getDocument("1", BaseDocument.class);
+				for (int i = 0; i < 10; i++) {
+					arangoDB.getVersion().get(1, TimeUnit.SECONDS);
+				}
+				assertThat(metrics.getOpenedConnections(), is(2L));
+				release.countDown();
+				busy.handle((document, ex) -> null).get();
+			} finally {
+				release.countDown();
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test(expected = ArangoDBException.class)
+	public void unknownConnectionGroup() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort()).build();
+			try {
+				arangoDB.db().collection("stub").connectionGroup("bulk");
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void closeIdle() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().latency(50, TimeUnit.MILLISECONDS).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = arangoDB(server,
+				new ConnectionPoolOptions().inFlightThreshold(2).idleTimeout(100), metrics);
+			try {
+				arangoDB.getVersion().get();
+				burst(arangoDB, 16);
+				assertThat(metrics.getConnections(), is(greaterThan(1L)));
+				final long deadline = System.currentTimeMillis() + 5000;
+				while (metrics.getConnections() > 1 && System.currentTimeMillis() < deadline) {
+					Thread.sleep(10);
+				}
+				assertThat(metrics.getConnections(), is(1L));
+				assertThat(metrics.getClosedConnections(), is(greaterThan(0L)));
+				arangoDB.getVersion().get();
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,557 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import com.arangodb.entity.ArangoDBVersion;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.entity.LoadBalancingStrategy;
+import com.arangodb.metrics.ArangoMetricsRecorder;
+import com.arangodb.metrics.CircuitState;
+import com.arangodb.model.AqlQueryOptions;
+import com.arangodb.model.CircuitBreakerOptions;
+import com.arangodb.model.ConnectionGroupOptions;
+import com.arangodb.model.HedgingOptions;
+import com.arangodb.stub.FaultProfile;
+import com.arangodb.stub.VstStubServer;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.ValueType;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class ArangoDBLoadBalancingTest {
+
+	private static ArangoDBAsync arangoDB(final LoadBalancingStrategy strategy, final VstStubServer... servers) {
+		final ArangoDBAsync.Builder builder = new ArangoDBAsync.Builder().clearHosts().loadBalancingStrategy(strategy);
+		for (final VstStubServer server : servers) {
+			builder.host(server.getHost(), server.getPort());
+		}
+		return builder.build();
+	}
+
+	private static void getVersion(final ArangoDBAsync arangoDB, final int count) throws Exception {
+		for (int i = 0; i < count; i++) {
+			arangoDB.getVersion().get();
+		}
+	}
+
+	@Test
+	public void none() throws Exception {
+		try (VstStubServer a = new VstStubServer.Builder().build();
+				VstStubServer b = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = arangoDB(LoadBalancingStrategy.NONE, a, b);
+			try {
+				getVersion(arangoDB, 10);
+				assertThat(a.getRequests(), is(10L));
+				assertThat(b.getRequests(), is(0L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void roundRobin() throws Exception {
+		try (VstStubServer a = new VstStubServer.Builder().build();
+				VstStubServer b = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = arangoDB(LoadBalancingStrategy.ROUND_ROBIN, a, b);
+			try {
+				getVersion(arangoDB, 10);
+				assertThat(a.getRequests(), is(5L));
+				assertThat(b.getRequests(), is(5L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void random() throws Exception {
+		try (VstStubServer a = new VstStubServer.Builder().build();
+				VstStubServer b = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = arangoDB(LoadBalancingStrategy.RANDOM, a, b);
+			try {
+				getVersion(arangoDB, 40);
+				assertThat(a.getRequests(), is(greaterThan(0L)));
+				assertThat(b.getRequests(), is(greaterThan(0L)));
+				assertThat(a.getRequests() + b.getRequests(), is(40L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void leastInFlight() throws Exception {
+		try (VstStubServer a = new VstStubServer.Builder().build();
+				VstStubServer b = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = arangoDB(LoadBalancingStrategy.LEAST_IN_FLIGHT, a, b);
+			try {
+				getVersion(arangoDB, 10);
+				assertThat(a.getRequests(), is(5L));
+				assertThat(b.getRequests(), is(5L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	private static VstStubServer failing(final AtomicBoolean failing) throws IOException {
+		return new VstStubServer.Builder().route(RequestType.GET, "/_api/version", request -> {
+			if (!failing.get()) {
+				return null;
+			}
+			final Response response = new Response();
+			response.setResponseCode(503);
+			return response;
+		}).build();
+	}
+
+	private static String address(final VstStubServer server) {
+		return server.getHost() + ":" + server.getPort();
+	}
+
+	private static void await(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(condition.getAsBoolean(), is(true));
+	}
+
+	@Test
+	public void circuitBreaker() throws Exception {
+		try (VstStubServer good = new VstStubServer.Builder().build();
+				VstStubServer bad = failing(new AtomicBoolean(true))) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(good.getHost(), good.getPort())
+					.host(bad.getHost(), bad.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.circuitBreaker(new CircuitBreakerOptions().minimumRequests(2).openDuration(60000))
+					.metrics(metrics).build();
+			try {
+				for (int i = 0; i < 10; i++) {
+					try {
+						arangoDB.getVersion().get();
+					} catch (final ExecutionException e) {
+					}
+				}
+				assertThat(metrics.getCircuitState(address(bad)), is(CircuitState.OPEN));
+				assertThat(metrics.getCircuitState(address(good)), is(CircuitState.CLOSED));
+				final long requests = bad.getRequests();
+				getVersion(arangoDB, 10);
+				assertThat(bad.getRequests(), is(requests));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void healthCheck() throws Exception {
+		final AtomicBoolean failing = new AtomicBoolean(true);
+		try (VstStubServer good = new VstStubServer.Builder().build(); VstStubServer bad = failing(failing)) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(good.getHost(), good.getPort())
+					.host(bad.getHost(), bad.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.circuitBreaker(new CircuitBreakerOptions().openDuration(200)).healthCheckInterval(50)
+					.metrics(metrics).build();
+			try {
+				await(() -> metrics.getCircuitState(address(bad)) == CircuitState.OPEN);
+				assertThat(metrics.getFailedHealthChecks(), is(greaterThan(0L)));
+				failing.set(false);
+				await(() -> metrics.getCircuitState(address(bad)) == CircuitState.CLOSED);
+				final long requests = bad.getRequests();
+				getVersion(arangoDB, 10);
+				assertThat(bad.getRequests(), is(greaterThan(requests)));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	private static VstStubServer slowReads(final long millis) throws Exception {
+		final VstStubServer server = new VstStubServer.Builder().route(RequestType.GET, "/_api/document/.*",
+			request -> {
+				Thread.sleep(millis);
+				return null;
+			}).build();
+		insertDocument(server, "1");
+		return server;
+	}
+
+	private static void insertDocument(final VstStubServer server, final String key) throws Exception {
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+				.host(server.getHost(), server.getPort()).build();
+		try {
+			arangoDB.db().collection("stub").insertDocument(new BaseDocument(key)).get();
+		} finally {
+			arangoDB.shutdown();
+		}
+	}
+
+	@Test
+	public void healthCheckStalledHost() throws Exception {
+		try (VstStubServer good = new VstStubServer.Builder().build();
+				VstStubServer stalled = new VstStubServer.Builder()
+						.faults(new FaultProfile.Builder().stall(1.0).build()).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			// the connection to the stalled host never gets its authentication answered
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(good.getHost(), good.getPort())
+					.host(stalled.getHost(), stalled.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.user("root").timeout(10000).healthCheckInterval(50).metrics(metrics).build();
+			try {
+				await(() -> metrics.getHealthChecks() >= 10);
+				assertThat(metrics.getFailedHealthChecks(), is(greaterThan(0L)));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void completionExecutorOpensConnection() throws Exception {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (VstStubServer first = new VstStubServer.Builder().build();
+				VstStubServer second = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(first.getHost(), first.getPort())
+					.host(second.getHost(), second.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.user("root").completionExecutor(executor).build();
+			try {
+				// the second request opens and authenticates the connection to the second host on the only thread
+				// of the completion executor
+				final ArangoDBVersion version = arangoDB.getVersion().thenCompose(v -> arangoDB.getVersion())
+						.get(10, TimeUnit.SECONDS);
+				assertThat(version.getServer(), is("arango"));
+				assertThat(second.getRequests(), is(greaterThan(0L)));
+			} finally {
+				arangoDB.shutdown();
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void hedging() throws Exception {
+		try (VstStubServer slow = slowReads(300); VstStubServer fast = slowReads(0)) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(slow.getHost(), slow.getPort())
+					.host(fast.getHost(), fast.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.hedging(new HedgingOptions().delay(20).budget(1.0)).metrics(metrics).build();
+			try {
+				getVersion(arangoDB, 2);
+				for (int i = 0; i < 4; i++) {
+					final long start = System.nanoTime();
+					final BaseDocument document = arangoDB.db().collection("stub").getDocument("1", BaseDocument.class)
+							.get();
+					assertThat(document.getKey(), is("1"));
+					assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(lessThan(250L)));
+				}
+				assertThat(metrics.getHedgedRequests(), is(greaterThan(0L)));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void hedgingConnectionFailure() throws Exception {
+		try (VstStubServer broken = new VstStubServer.Builder()
+				.faults(new FaultProfile.Builder().reset(1.0).build()).build();
+				VstStubServer good = slowReads(0)) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			// neither the delay nor the budget allow a duplicate, only the failed connection does
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(broken.getHost(), broken.getPort())
+					.host(good.getHost(), good.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.hedging(new HedgingOptions().delay(60000).budget(0.0)).timeout(5000).metrics(metrics).build();
+			try {
+				for (int i = 0; i < 4; i++) {
+					final BaseDocument document = arangoDB.db().collection("stub").getDocument("1", BaseDocument.class)
+							.get(10, TimeUnit.SECONDS);
+					assertThat(document.getKey(), is("1"));
+				}
+				assertThat(metrics.getHedgedRequests(), is(greaterThan(0L)));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void hedgingConcurrentFailure() throws Exception {
+		final AtomicInteger failures = new AtomicInteger();
+		// the first request fails about when the duplicate is sent
+		try (VstStubServer broken = new VstStubServer.Builder().route(RequestType.GET, "/_api/document/.*",
+			request -> {
+				Thread.sleep(15 + failures.getAndIncrement() % 10);
+				throw new SocketException();
+			}).build(); VstStubServer good = slowReads(0)) {
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(broken.getHost(), broken.getPort())
+					.host(good.getHost(), good.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.hedging(new HedgingOptions().delay(20).budget(1.0)).timeout(5000).build();
+			try {
+				for (int i = 0; i < 40; i++) {
+					final BaseDocument document = arangoDB.db().collection("stub").getDocument("1", BaseDocument.class)
+							.get(10, TimeUnit.SECONDS);
+					assertThat(document, is(notNullValue()));
+				}
+				assertThat(failures.get(), is(greaterThan(0)));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void hedgingBudget() throws Exception {
+		try (VstStubServer slow = slowReads(100); VstStubServer fast = slowReads(0)) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(slow.getHost(), slow.getPort())
+					.host(fast.getHost(), fast.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.hedging(new HedgingOptions().delay(20).budget(0.0)).metrics(metrics).build();
+			try {
+				getVersion(arangoDB, 2);
+				for (int i = 0; i < 4; i++) {
+					arangoDB.db().collection("stub").getDocument("1", BaseDocument.class).get();
+				}
+				assertThat(metrics.getHedgedRequests(), is(0L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void latencyWeighted() throws Exception {
+		try (VstStubServer slow = new VstStubServer.Builder().latency(20, TimeUnit.MILLISECONDS).build();
+				VstStubServer fast = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = arangoDB(LoadBalancingStrategy.LATENCY_WEIGHTED, slow, fast);
+			try {
+				getVersion(arangoDB, 50);
+				assertThat(fast.getRequests(), is(greaterThan(slow.getRequests())));
+				assertThat(slow.getRequests() + fast.getRequests(), is(50L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void cursorAffinity() throws Exception {
+		final String query = "FOR i IN 1..5 RETURN i";
+		final List<Integer> result = Arrays.asList(1, 2, 3, 4, 5);
+		try (VstStubServer a = new VstStubServer.Builder().query(query, result).build();
+				VstStubServer b = new VstStubServer.Builder().query(query, result).build()) {
+			final ArangoDBAsync arangoDB = arangoDB(LoadBalancingStrategy.ROUND_ROBIN, a, b);
+			try {
+				final AqlQueryOptions options = new AqlQueryOptions().batchSize(2);
+				final ArangoCursorAsync<Integer> first = arangoDB.db().query(query, null, options, Integer.class).get();
+				final ArangoCursorAsync<Integer> second = arangoDB.db().query(query, null, options, Integer.class)
+						.get();
+				assertThat(a.getRequests(), is(1L));
+				assertThat(b.getRequests(), is(1L));
+				final List<Integer> firstResult = new ArrayList<>();
+				final List<Integer> secondResult = new ArrayList<>();
+				while (first.hasNext() || second.hasNext()) {
+					if (first.hasNext()) {
+						firstResult.add(first.next());
+					}
+					if (second.hasNext()) {
+						secondResult.add(second.next());
+					}
+				}
+				assertThat(firstResult, is(result));
+				assertThat(secondResult, is(result));
+				assertThat(a.getRequests(), is(3L));
+				assertThat(b.getRequests(), is(3L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void cursorAffinityPercentileHedging() throws Exception {
+		final String query = "FOR i IN 1..5 RETURN i";
+		final List<Integer> result = Arrays.asList(1, 2, 3, 4, 5);
+		try (VstStubServer a = new VstStubServer.Builder().query(query, result).build();
+				VstStubServer b = new VstStubServer.Builder().query(query, result).build()) {
+			// no duplicates are sent before the first percentile is known, the cursor host has to be kept anyway
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(a.getHost(), a.getPort())
+					.host(b.getHost(), b.getPort()).loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN)
+					.hedging(new HedgingOptions().percentile(95.0)).build();
+			try {
+				final AqlQueryOptions options = new AqlQueryOptions().batchSize(2);
+				for (int i = 0; i < 4; i++) {
+					final ArangoCursorAsync<Integer> cursor = arangoDB.db().query(query, null, options, Integer.class)
+							.get();
+					assertThat(cursor.asListRemaining(), is(result));
+				}
+				assertThat(a.getRequests(), is(6L));
+				assertThat(b.getRequests(), is(6L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void cursorAffinityConnectionFailure() throws Exception {
+		final String query = "FOR i IN 1..5 RETURN i";
+		final List<Integer> result = Arrays.asList(1, 2, 3, 4, 5);
+		final AtomicBoolean reset = new AtomicBoolean(true);
+		try (VstStubServer a = new VstStubServer.Builder().route(RequestType.PUT, "/_api/cursor/.+", request -> {
+			if (reset.getAndSet(false)) {
+				throw new SocketException();
+			}
+			return null;
+		}).query(query, result).build(); VstStubServer b = new VstStubServer.Builder().query(query, result).build()) {
+			final ArangoDBAsync arangoDB = arangoDB(LoadBalancingStrategy.ROUND_ROBIN, a, b);
+			try {
+				final ArangoCursorAsync<Integer> cursor = arangoDB.db()
+						.query(query, null, new AqlQueryOptions().batchSize(2), Integer.class).get();
+				assertThat(a.getRequests(), is(1L));
+				final Request next = new Request("_system", RequestType.PUT, "/_api/cursor/" + cursor.getId());
+				try {
+					arangoDB.execute(next).get();
+					fail();
+				} catch (final ExecutionException e) {
+				}
+				// the connection failed, the cursor still exists on the host which created it. The reset connection is
+				// closed asynchronously, a request sent before that fails the same way.
+				Response response = null;
+				final long deadline = System.currentTimeMillis() + 5000;
+				while (response == null && System.currentTimeMillis() < deadline) {
+					try {
+						response = arangoDB.execute(next).get();
+					} catch (final ExecutionException e) {
+						Thread.sleep(10);
+					}
+				}
+				assertThat(response.getResponseCode(), is(200));
+				assertThat(a.getRequests(), is(3L));
+				assertThat(b.getRequests(), is(0L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * @return a server which returns the given coordinator as the endpoints of the cluster
+	 */
+	private static VstStubServer seed(final VstStubServer coordinator) throws IOException {
+		return new VstStubServer.Builder().route(RequestType.GET, "/_api/cluster/endpoints", request -> {
+			final VPackBuilder builder = new VPackBuilder();
+			builder.add(ValueType.OBJECT);
+			builder.add("error", false);
+			builder.add("code", 200);
+			builder.add("endpoints", ValueType.ARRAY);
+			builder.add(ValueType.OBJECT);
+			builder.add("endpoint", "tcp://" + address(coordinator));
+			builder.close();
+			builder.close();
+			builder.close();
+			final Response response = new Response();
+			response.setResponseCode(200);
+			response.setBody(builder.slice());
+			return response;
+		}).build();
+	}
+
+	@Test(expected = ArangoDBException.class)
+	public void acquireHostListWithoutLoadBalancing() {
+		new ArangoDBAsync.Builder().acquireHostList(true).build();
+	}
+
+	@Test
+	public void acquireHostList() throws Exception {
+		try (VstStubServer coordinator = new VstStubServer.Builder().build();
+				VstStubServer seed = seed(coordinator)) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(seed.getHost(), seed.getPort())
+					.loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN).acquireHostList(true).metrics(metrics)
+					.build();
+			try {
+				await(() -> metrics.getHosts().equals(Collections.singletonList(address(coordinator))));
+				final long requests = seed.getRequests();
+				getVersion(arangoDB, 10);
+				assertThat(seed.getRequests(), is(requests));
+				assertThat(coordinator.getRequests(), is(10L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void acquireHostListConnectionGroup() throws Exception {
+		try (VstStubServer coordinator = new VstStubServer.Builder().build();
+				VstStubServer seed = seed(coordinator)) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(seed.getHost(), seed.getPort())
+					.loadBalancingStrategy(LoadBalancingStrategy.ROUND_ROBIN).acquireHostList(true).metrics(metrics)
+					.connectionGroup("bulk", new ConnectionGroupOptions().maxConnections(1)).build();
+			try {
+				await(() -> metrics.getHosts().equals(Collections.singletonList(address(coordinator))));
+				final long requests = seed.getRequests();
+				// the group follows the host list acquired for the default connections
+				for (int i = 0; i < 10; i++) {
+					arangoDB.db().connectionGroup("bulk").getVersion().get();
+				}
+				assertThat(seed.getRequests(), is(requests));
+				assertThat(coordinator.getRequests(), is(10L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.metrics.ArangoMetricsRecorder;
+import com.arangodb.model.RetryOptions;
+import com.arangodb.stub.VstStubServer;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class ArangoDBRetryTest {
+
+	private static VstStubServer.Handler unavailable(final int times) {
+		final AtomicInteger count = new AtomicInteger();
+		return request -> {
+			if (count.incrementAndGet() > times) {
+				return null;
+			}
+			final Response response = new Response();
+			response.setResponseCode(503);
+			return response;
+		};
+	}
+
+	private static ArangoDBAsync arangoDB(final VstStubServer server, final ArangoMetricsRecorder metrics) {
+		return new ArangoDBAsync.Builder().clearHosts().host(server.getHost(), server.getPort())
+				.retry(new RetryOptions().maxAttempts(3).initialBackoff(1)).metrics(metrics).build();
+	}
+
+	@Test
+	public void retryRead() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder()
+				.route(RequestType.GET, "/_api/document/.*", unavailable(2)).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = arangoDB(server, metrics);
+			try {
+				final ArangoCollectionAsync collection = arangoDB.db().collection("stub");
+				collection.insertDocument(new BaseDocument("1")).get();
+				assertThat(collection.getDocument("1", BaseDocument.class).get().getKey(), is("1"));
+				assertThat(metrics.getRetriedRequests(), is(2L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void maxAttempts() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder()
+				.route(RequestType.GET, "/_api/collection/.*", unavailable(3)).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = arangoDB(server, metrics);
+			try {
+				// getDocument completes with null on errors, getInfo fails
+				arangoDB.db().collection("stub").getInfo().get();
+				fail();
+			} catch (final ExecutionException e) {
+				assertThat(((ArangoDBException) e.getCause()).getResponseCode(), is(503));
+				assertThat(metrics.getRetriedRequests(), is(2L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void noRetryOfInsert() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder()
+				.route(RequestType.POST, "/_api/document/.*", unavailable(1)).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = arangoDB(server, metrics);
+			try {
+				arangoDB.db().collection("stub").insertDocument(new BaseDocument("1")).get();
+				fail();
+			} catch (final ExecutionException e) {
+				assertThat(metrics.getRetriedRequests(), is(0L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void noRetryOfQuery() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder()
+				.route(RequestType.POST, "/_api/cursor", unavailable(1))
+				.query("FOR i IN stub RETURN i", Collections.singletonList(new BaseDocument("1"))).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = arangoDB(server, metrics);
+			try {
+				arangoDB.db().query("FOR i IN stub RETURN i", null, null, BaseDocument.class).get();
+				fail();
+			} catch (final ExecutionException e) {
+				assertThat(metrics.getRetriedRequests(), is(0L));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+}
@@ -34,9 +34,13 @@ import static org.junit.Assert.fail;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 
@@ -46,6 +50,7 @@ import com.arangodb.entity.LogLevel;
 import com.arangodb.entity.LogLevelEntity;
 import com.arangodb.entity.Permissions;
 import com.arangodb.entity.UserEntity;
+import com.arangodb.metrics.ArangoMetricsRecorder;
 import com.arangodb.model.LogOptions;
 import com.arangodb.model.LogOptions.SortOrder;
 import com.arangodb.model.UserCreateOptions;
@@ -78,6 +83,115 @@ public class ArangoDBTest {
 		f.get();
 	}
 
+	@Test
+	public void getVersionWithCompletionExecutor() throws InterruptedException, ExecutionException {
+		final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "completion"));
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().completionExecutor(executor).build();
+		try {
+			final String thread = arangoDB.getVersion().thenApply(version -> Thread.currentThread().getName()).get();
+			assertThat(thread, is("completion"));
+		} finally {
+			arangoDB.shutdown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void getVersionWithBlockingExecutor() throws InterruptedException, ExecutionException {
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().blockingExecutor(executor).build();
+		try {
+			final ArangoDBVersion version = arangoDB.getVersion().get();
+			assertThat(version.getVersion(), is(notNullValue()));
+		} finally {
+			arangoDB.shutdown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void getVersionBlocking() {
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().build();
+		final ArangoDBVersion version = ArangoBlocking.get(arangoDB.getVersion());
+		assertThat(version.getVersion(), is(notNullValue()));
+	}
+
+	@Test(expected = ArangoDBException.class)
+	public void getBlockingUnknownDatabase() {
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().build();
+		ArangoBlocking.get(arangoDB.db("no").getInfo());
+	}
+
+	@Test
+	public void getVersionWithMetrics() throws InterruptedException, ExecutionException {
+		final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().metrics(metrics).build();
+		try {
+			arangoDB.getVersion().get();
+			try {
+				arangoDB.db("no").getInfo().get();
+				fail();
+			} catch (final ExecutionException e) {
+			}
+			assertThat(metrics.getOperations(), is(2L));
+			assertThat(metrics.getFailedOperations(), is(1L));
+			assertThat(metrics.getErrors(404), is(1L));
+			assertThat(metrics.getLatency(RequestType.GET).getCount(), is(2L));
+			assertThat(metrics.getLatency(RequestType.GET).getValueAtPercentile(50), is(greaterThan(0L)));
+			// same request type, different operations
+			assertThat(metrics.getLatency("GET /_api/version").getCount(), is(1L));
+			assertThat(metrics.getLatency("GET /_api/database/current").getCount(), is(1L));
+			assertThat(metrics.getMessagesSent(), is(metrics.getMessagesReceived()));
+			assertThat(metrics.getBytesSent(), is(greaterThan(0L)));
+			assertThat(metrics.getBytesReceived(), is(greaterThan(0L)));
+			assertThat(metrics.getChunksSent(), is(greaterThan(0L)));
+		} finally {
+			arangoDB.shutdown();
+		}
+	}
+
+	@Test
+	public void getVersionWithInterceptor() throws InterruptedException, ExecutionException {
+		final List<String> calls = new CopyOnWriteArrayList<>();
+		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().interceptor(new ArangoInterceptor() {
+			@Override
+			public Object beforeSend(final Request request) {
+				calls.add("before " + request.getRequest());
+				return "context";
+			}
+
+			@Override
+			public void afterReceive(
+				final Request request,
+				final Response response,
+				final Object context,
+				final long durationNanos) {
+				calls.add("after " + context);
+			}
+
+			@Override
+			public void onError(
+				final Request request,
+				final Throwable error,
+				final Object context,
+				final long durationNanos) {
+				calls.add("error " + context);
+			}
+		}).build();
+		try {
+			arangoDB.getVersion().get();
+			try {
+				arangoDB.db("no").getInfo().get();
+				fail();
+			} catch (final ExecutionException e) {
+			}
+			assertThat(calls, contains("before /_api/version", "after context", "before /_api/database/current",
+				"error context"));
+		} finally {
+			arangoDB.shutdown();
+		}
+	}
+
 	@Test
 	public void createDatabase() throws InterruptedException, ExecutionException {
 		final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().build();
@@ -21,13 +21,22 @@
 package com.arangodb;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertThat;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.metrics.ArangoMetricsRecorder;
+import com.arangodb.stub.FaultProfile;
+import com.arangodb.stub.VstStubServer;
+import com.arangodb.velocystream.RequestType;
+
 /**
  * @author Mark Vollmary
  *
@@ -44,4 +53,67 @@ public class CommunicationTest {
 		assertThat(result.isCompletedExceptionally(), is(true));
 	}
 
+	@Test
+	public void interleavedChunks() throws Exception {
+		final AtomicBoolean inserted = new AtomicBoolean();
+		try (VstStubServer server = new VstStubServer.Builder()
+				.faults(new FaultProfile.Builder().slowReader(4 * 1024 * 1024).build())
+				.route(RequestType.POST, "/_api/document/.*", request -> {
+					inserted.set(true);
+					return null;
+				}).build()) {
+			final ArangoMetricsRecorder metrics = new ArangoMetricsRecorder();
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort()).metrics(metrics).build();
+			try {
+				arangoDB.getVersion().get();
+				final long sent = metrics.getMessagesSent();
+				final BaseDocument value = new BaseDocument("large");
+				value.addAttribute("a", new String(new char[16 * 1024 * 1024]).replace('\0', 'a'));
+				// the thread inserting the document is busy writing its chunks
+				final CompletableFuture<?> insert = CompletableFuture
+						.supplyAsync(() -> arangoDB.db().collection("stub").insertDocument(value))
+						.thenCompose(future -> future).handle((document, ex) -> null);
+				final long deadline = System.currentTimeMillis() + 10000;
+				while (metrics.getMessagesSent() == sent && System.currentTimeMillis() < deadline) {
+					Thread.sleep(10);
+				}
+				assertThat(metrics.getMessagesSent(), is(sent + 1));
+				arangoDB.getVersion().get(30, TimeUnit.SECONDS);
+				// the small request overtook the large one on the same connection
+				assertThat(inserted.get(), is(false));
+				insert.get(30, TimeUnit.SECONDS);
+				assertThat(inserted.get(), is(true));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void boundedWriteWork() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder()
+				.faults(new FaultProfile.Builder().slowReader(4 * 1024 * 1024).build()).build()) {
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort()).build();
+			try {
+				arangoDB.getVersion().get();
+				final BaseDocument value = new BaseDocument("large");
+				value.addAttribute("a", new String(new char[32 * 1024 * 1024]).replace('\0', 'a'));
+				final ArangoCollectionAsync collection = arangoDB.db().collection("stub");
+				// writing the whole document takes about 8 seconds, the calling thread only writes the first chunks and
+				// the small request does not wait for the rest
+				final long start = System.nanoTime();
+				final CompletableFuture<?> insert = collection.insertDocument(value).handle((document, ex) -> null);
+				arangoDB.getVersion().get(30, TimeUnit.SECONDS);
+				final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				assertThat(insert.isDone(), is(false));
+				assertThat(latency, is(lessThan(3000L)));
+				insert.get(60, TimeUnit.SECONDS);
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
 }
@@ -0,0 +1,173 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.stub;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Network faults injected by {@link VstStubServer}: response latency following a distribution, responses which are
+ * never sent (stalls), responses delivered in two parts with a pause in between (partial chunk delivery), connections
+ * reset instead of answering and a server reading requests at a limited rate (slow reader). Each fault is applied to
+ * a response with its configured probability.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class FaultProfile {
+
+	public static final FaultProfile NONE = new Builder().build();
+
+	/**
+	 * Distribution of the delay added to a response
+	 */
+	public interface LatencyDistribution {
+		long nextNanos(Random random);
+	}
+
+	public static LatencyDistribution fixed(final long latency, final TimeUnit unit) {
+		final long nanos = unit.toNanos(latency);
+		return random -> nanos;
+	}
+
+	public static LatencyDistribution uniform(final long min, final long max, final TimeUnit unit) {
+		final long minNanos = unit.toNanos(min);
+		final long range = unit.toNanos(max) - minNanos;
+		return random -> minNanos + (long) (random.nextDouble() * range);
+	}
+
+	public static LatencyDistribution exponential(final long mean, final TimeUnit unit) {
+		final long meanNanos = unit.toNanos(mean);
+		return random -> (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+	}
+
+	/**
+	 * Mostly the base latency, with the given probability the spike latency instead, e.g. to simulate GC pauses
+	 */
+	public static LatencyDistribution spikes(
+		final long base,
+		final long spike,
+		final double probability,
+		final TimeUnit unit) {
+		final long baseNanos = unit.toNanos(base);
+		final long spikeNanos = unit.toNanos(spike);
+		return random -> random.nextDouble() < probability ? spikeNanos : baseNanos;
+	}
+
+	public static class Builder {
+
+		private LatencyDistribution latency;
+		private double stallProbability;
+		private double partialProbability;
+		private long partialDelay;
+		private double resetProbability;
+		private long readBytesPerSecond;
+
+		public Builder() {
+			super();
+			latency = fixed(0, TimeUnit.NANOSECONDS);
+		}
+
+		public Builder latency(final LatencyDistribution latency) {
+			this.latency = latency;
+			return this;
+		}
+
+		/**
+		 * Responses are never sent with the given probability
+		 */
+		public Builder stall(final double probability) {
+			stallProbability = probability;
+			return this;
+		}
+
+		/**
+		 * Responses are sent in two parts with the given probability, the second after the given delay. No other
+		 * response can be sent on the connection in between.
+		 */
+		public Builder partialChunks(final double probability, final long delay, final TimeUnit unit) {
+			partialProbability = probability;
+			partialDelay = unit.toNanos(delay);
+			return this;
+		}
+
+		/**
+		 * The connection is reset instead of sending the response with the given probability
+		 */
+		public Builder reset(final double probability) {
+			resetProbability = probability;
+			return this;
+		}
+
+		/**
+		 * Requests are read with at most the given rate
+		 */
+		public Builder slowReader(final long bytesPerSecond) {
+			readBytesPerSecond = bytesPerSecond;
+			return this;
+		}
+
+		public FaultProfile build() {
+			return new FaultProfile(latency, stallProbability, partialProbability, partialDelay, resetProbability,
+					readBytesPerSecond);
+		}
+	}
+
+	private final LatencyDistribution latency;
+	private final double stallProbability;
+	private final double partialProbability;
+	private final long partialDelay;
+	private final double resetProbability;
+	private final long readBytesPerSecond;
+
+	private FaultProfile(final LatencyDistribution latency, final double stallProbability,
+		final double partialProbability, final long partialDelay, final double resetProbability,
+		final long readBytesPerSecond) {
+		super();
+		this.latency = latency;
+		this.stallProbability = stallProbability;
+		this.partialProbability = partialProbability;
+		this.partialDelay = partialDelay;
+		this.resetProbability = resetProbability;
+		this.readBytesPerSecond = readBytesPerSecond;
+	}
+
+	long latency(final Random random) {
+		return latency.nextNanos(random);
+	}
+
+	boolean stall(final Random random) {
+		return stallProbability > 0 && random.nextDouble() < stallProbability;
+	}
+
+	long partialDelay(final Random random) {
+		return partialProbability > 0 && random.nextDouble() < partialProbability ? partialDelay : 0L;
+	}
+
+	boolean reset(final Random random) {
+		return resetProbability > 0 && random.nextDouble() < resetProbability;
+	}
+
+	long readBytesPerSecond() {
+		return readBytesPerSecond;
+	}
+
+}
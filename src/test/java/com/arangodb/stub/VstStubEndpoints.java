@@ -0,0 +1,483 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.stub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.arangodb.internal.velocypack.VPackDriverModule;
+import com.arangodb.stub.VstStubServer.Route;
+import com.arangodb.velocypack.VPack;
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+
+/**
+ * In-memory implementation of the endpoints answered by {@link VstStubServer}. Documents are kept per database and
+ * collection, collections are created on first use. Query results have to be scripted with
+ * {@link VstStubServer.Builder#query(String, Collection)}.
+ * 
+ * @author Mark Vollmary
+ *
+ */
+class VstStubEndpoints {
+
+	private static final String KEY = "_key";
+	private static final String ID = "_id";
+	private static final String REV = "_rev";
+	private static final int DEFAULT_BATCH_SIZE = 1000;
+	private static final int ERROR_QUERY_PARSE = 1501;
+	private static final int ERROR_DOCUMENT_NOT_FOUND = 1202;
+	private static final int ERROR_UNIQUE_CONSTRAINT_VIOLATED = 1210;
+	private static final int ERROR_CURSOR_NOT_FOUND = 1600;
+
+	private static final VPack VPACK = new VPack.Builder().registerModule(new VPackDriverModule()).build();
+	// cursor ids are unique across servers, like the ones of the coordinators of a cluster
+	private static final AtomicLong CURSOR_IDS = new AtomicLong();
+
+	private static class Cursor {
+		private final List<VPackSlice> result;
+		private final int batchSize;
+		private int position;
+
+		private Cursor(final List<VPackSlice> result, final int batchSize) {
+			super();
+			this.result = result;
+			this.batchSize = batchSize;
+		}
+	}
+
+	private final Map<String, Map<String, VPackSlice>> collections;
+	private final Map<String, List<VPackSlice>> queries;
+	private final Map<String, Cursor> cursors;
+	private final AtomicLong ids;
+
+	VstStubEndpoints() {
+		super();
+		collections = new ConcurrentHashMap<>();
+		queries = new ConcurrentHashMap<>();
+		cursors = new ConcurrentHashMap<>();
+		ids = new AtomicLong();
+	}
+
+	void query(final String query, final Collection<?> result) {
+		final List<VPackSlice> documents = new ArrayList<>();
+		for (final Object document : result) {
+			documents.add(VPACK.serialize(document));
+		}
+		queries.put(query, documents);
+	}
+
+	List<Route> routes() {
+		return Arrays.asList(
+			new Route(RequestType.GET, "/_api/version", request -> response(200, VPACK.serialize(version()))),
+			new Route(RequestType.POST, "/_api/database", request -> result(201, true)),
+			new Route(RequestType.DELETE, "/_api/database/[^/]+", request -> result(200, true)),
+			new Route(RequestType.GET, "/_api/database/current", this::currentDatabase),
+			new Route(RequestType.POST, "/_api/collection", this::createCollection),
+			new Route(RequestType.DELETE, "/_api/collection/[^/]+", this::dropCollection),
+			new Route(RequestType.POST, "/_api/document/[^/]+", this::insertDocuments),
+			new Route(RequestType.GET, "/_api/document/[^/]+/[^/]+", this::getDocument),
+			new Route(RequestType.HEAD, "/_api/document/[^/]+/[^/]+", this::documentExists),
+			new Route(RequestType.PUT, "/_api/document/[^/]+", this::replaceDocuments),
+			new Route(RequestType.PATCH, "/_api/document/[^/]+", this::updateDocuments),
+			new Route(RequestType.PUT, "/_api/document/[^/]+/[^/]+", request -> modifyDocument(request, false)),
+			new Route(RequestType.PATCH, "/_api/document/[^/]+/[^/]+", request -> modifyDocument(request, true)),
+			new Route(RequestType.DELETE, "/_api/document/[^/]+/[^/]+", this::deleteDocument),
+			new Route(RequestType.DELETE, "/_api/document/[^/]+", this::deleteDocuments),
+			new Route(RequestType.POST, "/_api/import", this::importDocuments),
+			new Route(RequestType.POST, "/_api/cursor", this::createCursor),
+			new Route(RequestType.PUT, "/_api/cursor/[^/]+", this::nextBatch),
+			new Route(RequestType.DELETE, "/_api/cursor/[^/]+", this::deleteCursor));
+	}
+
+	static Response response(final int code, final VPackSlice body) {
+		final Response response = new Response();
+		response.setResponseCode(code);
+		response.setBody(body);
+		return response;
+	}
+
+	static Response error(final int code, final int errorNum, final String errorMessage) {
+		return response(code, errorBody(code, errorNum, errorMessage));
+	}
+
+	private static VPackSlice errorBody(final int code, final int errorNum, final String errorMessage) {
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add("error", true);
+		builder.add("code", code);
+		builder.add("errorNum", errorNum);
+		builder.add("errorMessage", errorMessage);
+		builder.close();
+		return builder.slice();
+	}
+
+	private static Response result(final int code, final Object result) {
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add("error", false);
+		builder.add("code", code);
+		builder.add("result", VPACK.serialize(result));
+		builder.close();
+		return response(code, builder.slice());
+	}
+
+	private static Map<String, String> version() {
+		final Map<String, String> version = new HashMap<>();
+		version.put("server", "arango");
+		version.put("version", "3.2.0");
+		version.put("license", "community");
+		return version;
+	}
+
+	private static String segment(final Request request, final int index) {
+		return request.getRequest().split("/")[index];
+	}
+
+	private static boolean param(final Request request, final String name) {
+		final Object value = request.getQueryParam().get(name);
+		return value != null && Boolean.parseBoolean(value.toString());
+	}
+
+	private Map<String, VPackSlice> collection(final Request request, final String name) {
+		return collections.computeIfAbsent(request.getDatabase() + "/" + name, n -> new ConcurrentHashMap<>());
+	}
+
+	private Response currentDatabase(final Request request) {
+		final Map<String, Object> database = new HashMap<>();
+		database.put("name", request.getDatabase());
+		database.put("id", "1");
+		database.put("path", "/tmp/" + request.getDatabase());
+		database.put("isSystem", "_system".equals(request.getDatabase()));
+		return result(200, database);
+	}
+
+	private Response createCollection(final Request request) {
+		final String name = request.getBody().get("name").getAsString();
+		collection(request, name);
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add("id", String.valueOf(ids.incrementAndGet()));
+		builder.add("name", name);
+		builder.add("waitForSync", false);
+		builder.add("isVolatile", false);
+		builder.add("isSystem", name.startsWith("_"));
+		builder.add("status", 3);
+		builder.add("type", 2);
+		builder.close();
+		return response(200, builder.slice());
+	}
+
+	private Response dropCollection(final Request request) {
+		collections.remove(request.getDatabase() + "/" + segment(request, 3));
+		return response(200, VPACK.serialize(new HashMap<String, Object>()));
+	}
+
+	private String newRev() {
+		return "_" + Long.toString(ids.incrementAndGet(), 36);
+	}
+
+	private VPackSlice store(
+		final Map<String, VPackSlice> collection,
+		final String collectionName,
+		final String key,
+		final VPackSlice document,
+		final VPackSlice merge) {
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add(KEY, key);
+		builder.add(ID, collectionName + "/" + key);
+		builder.add(REV, newRev());
+		copyAttributes(builder, document, merge);
+		if (merge != null) {
+			copyAttributes(builder, merge, null);
+		}
+		builder.close();
+		final VPackSlice stored = builder.slice();
+		collection.put(key, stored);
+		return stored;
+	}
+
+	private static void copyAttributes(final VPackBuilder builder, final VPackSlice document, final VPackSlice except) {
+		for (final Iterator<Entry<String, VPackSlice>> iterator = document.objectIterator(); iterator.hasNext();) {
+			final Entry<String, VPackSlice> attribute = iterator.next();
+			final String name = attribute.getKey();
+			if (KEY.equals(name) || ID.equals(name) || REV.equals(name)
+					|| (except != null && !except.get(name).isNone())) {
+				continue;
+			}
+			builder.add(name, attribute.getValue());
+		}
+	}
+
+	private static VPackSlice meta(final VPackSlice document, final VPackSlice old, final VPackSlice newDocument) {
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add(ID, document.get(ID));
+		builder.add(KEY, document.get(KEY));
+		builder.add(REV, document.get(REV));
+		if (old != null) {
+			builder.add("_oldRev", old.get(REV));
+			builder.add("old", old);
+		}
+		if (newDocument != null) {
+			builder.add("new", newDocument);
+		}
+		builder.close();
+		return builder.slice();
+	}
+
+	private static String key(final VPackSlice value) {
+		if (value.isString()) {
+			return value.getAsString();
+		}
+		final VPackSlice key = value.get(KEY);
+		return key.isString() ? key.getAsString() : null;
+	}
+
+	private static Response documents(final List<VPackSlice> results) {
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.ARRAY);
+		for (final VPackSlice result : results) {
+			builder.add(result);
+		}
+		builder.close();
+		return response(202, builder.slice());
+	}
+
+	private VPackSlice insert(final Request request, final String collectionName, final VPackSlice document) {
+		final Map<String, VPackSlice> collection = collection(request, collectionName);
+		String key = key(document);
+		if (key == null) {
+			key = String.valueOf(ids.incrementAndGet());
+		} else if (collection.containsKey(key)) {
+			return errorBody(409, ERROR_UNIQUE_CONSTRAINT_VIOLATED, "unique constraint violated");
+		}
+		final VPackSlice stored = store(collection, collectionName, key, document, null);
+		return meta(stored, null, param(request, "returnNew") ? stored : null);
+	}
+
+	private Response insertDocuments(final Request request) {
+		final String collectionName = segment(request, 3);
+		final VPackSlice body = request.getBody();
+		if (!body.isArray()) {
+			final VPackSlice result = insert(request, collectionName, body);
+			return response(result.get("error").isTrue() ? 409 : 202, result);
+		}
+		final List<VPackSlice> results = new ArrayList<>();
+		for (final Iterator<VPackSlice> iterator = body.arrayIterator(); iterator.hasNext();) {
+			results.add(insert(request, collectionName, iterator.next()));
+		}
+		return documents(results);
+	}
+
+	private Response getDocument(final Request request) {
+		final VPackSlice document = collection(request, segment(request, 3)).get(segment(request, 4));
+		return document != null ? response(200, document)
+				: error(404, ERROR_DOCUMENT_NOT_FOUND, "document not found");
+	}
+
+	private Response documentExists(final Request request) {
+		return response(collection(request, segment(request, 3)).containsKey(segment(request, 4)) ? 200 : 404, null);
+	}
+
+	private VPackSlice modify(
+		final Request request,
+		final String collectionName,
+		final String key,
+		final VPackSlice document,
+		final boolean update) {
+		final Map<String, VPackSlice> collection = collection(request, collectionName);
+		final VPackSlice old = key != null ? collection.get(key) : null;
+		if (old == null) {
+			return errorBody(404, ERROR_DOCUMENT_NOT_FOUND, "document not found");
+		}
+		final VPackSlice stored = update ? store(collection, collectionName, key, old, document)
+				: store(collection, collectionName, key, document, null);
+		return meta(stored, param(request, "returnOld") ? old : null, param(request, "returnNew") ? stored : null);
+	}
+
+	private Response modifyDocument(final Request request, final boolean update) {
+		final VPackSlice result = modify(request, segment(request, 3), segment(request, 4), request.getBody(),
+			update);
+		return response(result.get("error").isTrue() ? 404 : 202, result);
+	}
+
+	private Response modifyDocuments(final Request request, final boolean update) {
+		final String collectionName = segment(request, 3);
+		final List<VPackSlice> results = new ArrayList<>();
+		for (final Iterator<VPackSlice> iterator = request.getBody().arrayIterator(); iterator.hasNext();) {
+			final VPackSlice document = iterator.next();
+			results.add(modify(request, collectionName, key(document), document, update));
+		}
+		return documents(results);
+	}
+
+	private Response replaceDocuments(final Request request) {
+		if (!param(request, "onlyget")) {
+			return modifyDocuments(request, false);
+		}
+		final Map<String, VPackSlice> collection = collection(request, segment(request, 3));
+		final List<VPackSlice> results = new ArrayList<>();
+		for (final Iterator<VPackSlice> iterator = request.getBody().arrayIterator(); iterator.hasNext();) {
+			final String key = key(iterator.next());
+			final VPackSlice document = key != null ? collection.get(key) : null;
+			results.add(document != null ? document
+					: errorBody(404, ERROR_DOCUMENT_NOT_FOUND, "document not found"));
+		}
+		final Response response = documents(results);
+		response.setResponseCode(200);
+		return response;
+	}
+
+	private Response updateDocuments(final Request request) {
+		return modifyDocuments(request, true);
+	}
+
+	private VPackSlice delete(final Request request, final String collectionName, final String key) {
+		final VPackSlice old = key != null ? collection(request, collectionName).remove(key) : null;
+		if (old == null) {
+			return errorBody(404, ERROR_DOCUMENT_NOT_FOUND, "document not found");
+		}
+		return meta(old, null, null);
+	}
+
+	private Response deleteDocument(final Request request) {
+		final VPackSlice result = delete(request, segment(request, 3), segment(request, 4));
+		return response(result.get("error").isTrue() ? 404 : 202, result);
+	}
+
+	private Response deleteDocuments(final Request request) {
+		final String collectionName = segment(request, 3);
+		final List<VPackSlice> results = new ArrayList<>();
+		for (final Iterator<VPackSlice> iterator = request.getBody().arrayIterator(); iterator.hasNext();) {
+			results.add(delete(request, collectionName, key(iterator.next())));
+		}
+		return documents(results);
+	}
+
+	private Response importDocuments(final Request request) {
+		final String collectionName = request.getQueryParam().get("collection").toString();
+		final VPackSlice body = request.getBody();
+		if (body == null || !body.isArray()) {
+			return error(400, 400, "expecting an array of documents");
+		}
+		int created = 0;
+		int errors = 0;
+		for (final Iterator<VPackSlice> iterator = body.arrayIterator(); iterator.hasNext();) {
+			if (insert(request, collectionName, iterator.next()).get("error").isTrue()) {
+				errors++;
+			} else {
+				created++;
+			}
+		}
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add("error", false);
+		builder.add("created", created);
+		builder.add("errors", errors);
+		builder.add("empty", 0);
+		builder.add("updated", 0);
+		builder.add("ignored", 0);
+		builder.close();
+		return response(201, builder.slice());
+	}
+
+	private Response createCursor(final Request request) {
+		final VPackSlice body = request.getBody();
+		final List<VPackSlice> result = queries.get(body.get("query").getAsString());
+		if (result == null) {
+			return error(400, ERROR_QUERY_PARSE,
+				String.format("query not scripted: %s", body.get("query").getAsString()));
+		}
+		final VPackSlice batchSize = body.get("batchSize");
+		final Cursor cursor = new Cursor(result, batchSize.isInteger() ? batchSize.getAsInt() : DEFAULT_BATCH_SIZE);
+		final String id = String.valueOf(CURSOR_IDS.incrementAndGet());
+		return batch(id, cursor, body.get("count").isTrue(), 201);
+	}
+
+	private Response nextBatch(final Request request) {
+		final String id = segment(request, 3);
+		final Cursor cursor = cursors.get(id);
+		if (cursor == null) {
+			return error(404, ERROR_CURSOR_NOT_FOUND, "cursor not found");
+		}
+		return batch(id, cursor, false, 200);
+	}
+
+	private Response deleteCursor(final Request request) {
+		final String id = segment(request, 3);
+		if (cursors.remove(id) == null) {
+			return error(404, ERROR_CURSOR_NOT_FOUND, "cursor not found");
+		}
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add("id", id);
+		builder.add("error", false);
+		builder.add("code", 202);
+		builder.close();
+		return response(202, builder.slice());
+	}
+
+	private Response batch(final String id, final Cursor cursor, final boolean count, final int code) {
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.OBJECT);
+		builder.add("result", ValueType.ARRAY);
+		final int end;
+		synchronized (cursor) {
+			end = Math.min(cursor.position + cursor.batchSize, cursor.result.size());
+			for (int i = cursor.position; i < end; i++) {
+				builder.add(cursor.result.get(i));
+			}
+			cursor.position = end;
+		}
+		builder.close();
+		final boolean hasMore = end < cursor.result.size();
+		if (hasMore) {
+			cursors.put(id, cursor);
+			builder.add("id", id);
+		} else {
+			cursors.remove(id);
+		}
+		builder.add("hasMore", hasMore);
+		if (count) {
+			builder.add("count", cursor.result.size());
+		}
+		builder.add("cached", false);
+		builder.add("error", false);
+		builder.add("code", code);
+		builder.close();
+		return response(code, builder.slice());
+	}
+
+}
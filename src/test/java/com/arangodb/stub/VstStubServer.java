@@ -0,0 +1,542 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.stub;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import com.arangodb.velocystream.Request;
+import com.arangodb.velocystream.RequestType;
+import com.arangodb.velocystream.Response;
+
+/**
+ * In-process stand-in for an ArangoDB server speaking VelocyStream 1.0, for tests and benchmarks which should run
+ * without a real server. It answers the version, database, collection, document, cursor and import endpoints from
+ * memory (see {@link VstStubEndpoints}), further responses can be scripted with
+ * {@link Builder#route(RequestType, String, Handler)}. Network faults can be injected with a {@link FaultProfile}.
+ * 
+ * <pre>
+ * try (VstStubServer server = new VstStubServer.Builder().build()) {
+ * 	ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts().host(server.getHost(), server.getPort())
+ * 			.build();
+ * 	...
+ * }
+ * </pre>
+ * 
+ * @author Mark Vollmary
+ *
+ */
+public class VstStubServer implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(VstStubServer.class);
+
+	private static final byte[] PROTOCOL_HEADER = "VST/1.0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+	private static final int CHUNK_MIN_HEADER_SIZE = 16;
+	private static final int CHUNK_MAX_HEADER_SIZE = 24;
+	private static final int MESSAGE_TYPE_REQUEST = 1;
+	private static final int MESSAGE_TYPE_RESPONSE = 2;
+	private static final int MESSAGE_TYPE_AUTHENTICATION = 1000;
+	private static final int DEFAULT_CHUNKSIZE = 30000;
+
+	/**
+	 * Creates the response for a request, or returns null to pass the request on to the next matching route. A
+	 * {@link SocketException} resets the connection instead of answering the request.
+	 */
+	public interface Handler {
+		Response handle(Request request) throws Exception;
+	}
+
+	public static class Builder {
+
+		private final List<Route> routes;
+		private final VstStubEndpoints endpoints;
+		private String user;
+		private String password;
+		private FaultProfile faults;
+		private int chunksize;
+
+		public Builder() {
+			super();
+			routes = new ArrayList<>();
+			endpoints = new VstStubEndpoints();
+			faults = FaultProfile.NONE;
+			chunksize = DEFAULT_CHUNKSIZE;
+		}
+
+		/**
+		 * Only accepts connections authenticating with the given credentials. By default every user is accepted.
+		 */
+		public Builder user(final String user, final String password) {
+			this.user = user;
+			this.password = password;
+			return this;
+		}
+
+		/**
+		 * Delays every response by the given time
+		 */
+		public Builder latency(final long latency, final TimeUnit unit) {
+			faults = new FaultProfile.Builder().latency(FaultProfile.fixed(latency, unit)).build();
+			return this;
+		}
+
+		/**
+		 * Injects the faults of the given profile, replaces a previously set latency
+		 */
+		public Builder faults(final FaultProfile faults) {
+			this.faults = faults;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum size of the chunks responses are split into
+		 */
+		public Builder chunksize(final int chunksize) {
+			this.chunksize = chunksize;
+			return this;
+		}
+
+		/**
+		 * Answers requests with the given type and a path matching the given regular expression with the given
+		 * handler. Routes are matched in the order they were added, before the built-in endpoints.
+		 */
+		public Builder route(final RequestType type, final String path, final Handler handler) {
+			routes.add(new Route(type, path, handler));
+			return this;
+		}
+
+		/**
+		 * Returns the given documents as result of the given AQL query, regardless of its bind parameters
+		 */
+		public Builder query(final String query, final Collection<?> result) {
+			endpoints.query(query, result);
+			return this;
+		}
+
+		public VstStubServer build() throws IOException {
+			final List<Route> all = new ArrayList<>(routes);
+			all.addAll(endpoints.routes());
+			return new VstStubServer(all, user, password, faults, chunksize);
+		}
+	}
+
+	static class Route {
+		private final RequestType type;
+		private final Pattern path;
+		private final Handler handler;
+
+		Route(final RequestType type, final String path, final Handler handler) {
+			super();
+			this.type = type;
+			this.path = Pattern.compile(path);
+			this.handler = handler;
+		}
+	}
+
+	private static class PendingMessage {
+		private final byte[][] chunks;
+		private int received;
+
+		private PendingMessage(final int numberOfChunks) {
+			super();
+			chunks = new byte[numberOfChunks][];
+		}
+
+		private boolean add(final int index, final byte[] content) {
+			chunks[index] = content;
+			return ++received == chunks.length;
+		}
+
+		private byte[] content() {
+			int length = 0;
+			for (final byte[] chunk : chunks) {
+				length += chunk.length;
+			}
+			final byte[] content = new byte[length];
+			int offset = 0;
+			for (final byte[] chunk : chunks) {
+				System.arraycopy(chunk, 0, content, offset, chunk.length);
+				offset += chunk.length;
+			}
+			return content;
+		}
+	}
+
+	private final List<Route> routes;
+	private final String user;
+	private final String password;
+	private final FaultProfile faults;
+	private final int chunksize;
+	private final ServerSocket serverSocket;
+	private final Set<Socket> connections;
+	private final ScheduledExecutorService scheduler;
+	private final AtomicLong requests;
+	private volatile boolean closed;
+
+	private VstStubServer(final List<Route> routes, final String user, final String password,
+		final FaultProfile faults, final int chunksize) throws IOException {
+		super();
+		this.routes = routes;
+		this.user = user;
+		this.password = password;
+		this.faults = faults;
+		this.chunksize = chunksize;
+		serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		connections = ConcurrentHashMap.newKeySet();
+		requests = new AtomicLong();
+		scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+			final Thread thread = new Thread(r, "vst-stub-scheduler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final Thread acceptor = new Thread(this::accept, "vst-stub-acceptor-" + getPort());
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	public String getHost() {
+		return serverSocket.getInetAddress().getHostAddress();
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return number of requests received, excluding authentication
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		serverSocket.close();
+		for (final Socket socket : connections) {
+			socket.close();
+		}
+		scheduler.shutdownNow();
+	}
+
+	private void accept() {
+		while (!closed) {
+			try {
+				final Socket socket = serverSocket.accept();
+				socket.setTcpNoDelay(true);
+				connections.add(socket);
+				final Thread reader = new Thread(() -> read(socket), "vst-stub-connection-" + socket.getPort());
+				reader.setDaemon(true);
+				reader.start();
+			} catch (final IOException e) {
+				if (!closed) {
+					LOGGER.error(e.getMessage(), e);
+				}
+			}
+		}
+	}
+
+	private void read(final Socket socket) {
+		try {
+			final InputStream in = faults.readBytesPerSecond() > 0
+					? new ThrottledInputStream(socket.getInputStream(), faults.readBytesPerSecond())
+					: new BufferedInputStream(socket.getInputStream());
+			final OutputStream out = socket.getOutputStream();
+			if (!Arrays.equals(readFully(in, PROTOCOL_HEADER.length), PROTOCOL_HEADER)) {
+				throw new IOException("Unexpected protocol header");
+			}
+			final Map<Long, PendingMessage> pending = new HashMap<>();
+			final boolean[] authenticated = { user == null };
+			while (!closed) {
+				final ByteBuffer header = ByteBuffer.wrap(readFully(in, CHUNK_MIN_HEADER_SIZE))
+						.order(ByteOrder.LITTLE_ENDIAN);
+				final int length = header.getInt();
+				final int chunkX = header.getInt();
+				final long messageId = header.getLong();
+				final boolean firstChunk = (chunkX & 1) == 1;
+				final int x = chunkX >>> 1;
+				int headerSize = CHUNK_MIN_HEADER_SIZE;
+				if (firstChunk && x > 1) {
+					// message length, not needed to reassemble the message
+					readFully(in, CHUNK_MAX_HEADER_SIZE - CHUNK_MIN_HEADER_SIZE);
+					headerSize = CHUNK_MAX_HEADER_SIZE;
+				}
+				final byte[] content = readFully(in, length - headerSize);
+				byte[] message = null;
+				if (firstChunk && x == 1) {
+					message = content;
+				} else if (firstChunk) {
+					final PendingMessage p = new PendingMessage(x);
+					p.add(0, content);
+					pending.put(messageId, p);
+				} else {
+					final PendingMessage p = pending.get(messageId);
+					if (p == null) {
+						throw new IOException(String.format("Unexpected chunk of message %s", messageId));
+					}
+					if (p.add(x, content)) {
+						pending.remove(messageId);
+						message = p.content();
+					}
+				}
+				if (message != null) {
+					final Response response = dispatch(message, authenticated);
+					final Random random = ThreadLocalRandom.current();
+					if (response == null || faults.reset(random)) {
+						socket.setSoLinger(true, 0);
+						return;
+					}
+					if (faults.stall(random)) {
+						continue;
+					}
+					final long latency = faults.latency(random);
+					final long partialDelay = faults.partialDelay(random);
+					if (latency > 0) {
+						scheduler.schedule(() -> write(out, messageId, response, partialDelay), latency,
+							TimeUnit.NANOSECONDS);
+					} else {
+						write(out, messageId, response, partialDelay);
+					}
+				}
+			}
+		} catch (final EOFException | SocketException e) {
+			// connection closed
+		} catch (final IOException e) {
+			LOGGER.error(e.getMessage(), e);
+		} finally {
+			connections.remove(socket);
+			try {
+				socket.close();
+			} catch (final IOException e) {
+			}
+		}
+	}
+
+	private Response dispatch(final byte[] message, final boolean[] authenticated) {
+		final VPackSlice head = new VPackSlice(message);
+		final int type = head.get(1).getAsInt();
+		if (type == MESSAGE_TYPE_AUTHENTICATION) {
+			authenticated[0] = user == null
+					|| (user.equals(head.get(3).getAsString()) && password.equals(head.get(4).getAsString()));
+			return VstStubEndpoints.response(authenticated[0] ? 200 : 401, null);
+		}
+		if (type != MESSAGE_TYPE_REQUEST) {
+			return VstStubEndpoints.error(400, 400, String.format("Unexpected message type %s", type));
+		}
+		if (!authenticated[0]) {
+			return VstStubEndpoints.error(401, 401, "not authorized to execute this request");
+		}
+		requests.incrementAndGet();
+		final Request request = new Request(head.get(2).getAsString(), requestType(head.get(3).getAsInt()),
+				head.get(4).getAsString());
+		for (final Iterator<Entry<String, VPackSlice>> iterator = head.get(5).objectIterator(); iterator
+				.hasNext();) {
+			final Entry<String, VPackSlice> param = iterator.next();
+			request.putQueryParam(param.getKey(), param.getValue().isString() ? param.getValue().getAsString()
+					: param.getValue().toString());
+		}
+		final int headSize = head.getByteSize();
+		if (message.length > headSize) {
+			request.setBody(new VPackSlice(message, headSize));
+		}
+		for (final Route route : routes) {
+			if (route.type == request.getRequestType() && route.path.matcher(request.getRequest()).matches()) {
+				try {
+					final Response response = route.handler.handle(request);
+					if (response == null) {
+						continue;
+					}
+					return response;
+				} catch (final SocketException e) {
+					return null;
+				} catch (final Exception e) {
+					LOGGER.error(e.getMessage(), e);
+					return VstStubEndpoints.error(500, 500, String.valueOf(e.getMessage()));
+				}
+			}
+		}
+		return VstStubEndpoints.error(404, 404, String.format("unknown path '%s'", request.getRequest()));
+	}
+
+	private static RequestType requestType(final int type) {
+		for (final RequestType requestType : RequestType.values()) {
+			if (requestType.getType() == type) {
+				return requestType;
+			}
+		}
+		return RequestType.ILLEGAL;
+	}
+
+	private void write(
+		final OutputStream out,
+		final long messageId,
+		final Response response,
+		final long partialDelay) {
+		final VPackBuilder builder = new VPackBuilder();
+		builder.add(ValueType.ARRAY);
+		builder.add(1);
+		builder.add(MESSAGE_TYPE_RESPONSE);
+		builder.add(response.getResponseCode());
+		builder.add(ValueType.OBJECT);
+		builder.close();
+		builder.close();
+		final VPackSlice head = builder.slice();
+		final VPackSlice body = response.getBody();
+		final int headSize = head.getByteSize();
+		final int bodySize = body != null ? body.getByteSize() : 0;
+		final byte[] message = new byte[headSize + bodySize];
+		System.arraycopy(head.getBuffer(), head.getStart(), message, 0, headSize);
+		if (body != null) {
+			System.arraycopy(body.getBuffer(), body.getStart(), message, headSize, bodySize);
+		}
+		try {
+			writeChunks(out, messageId, message, partialDelay);
+		} catch (final IOException e) {
+			LOGGER.debug(e.getMessage(), e);
+		}
+	}
+
+	private void writeChunks(
+		final OutputStream out,
+		final long messageId,
+		final byte[] message,
+		final long partialDelay) throws IOException {
+		final int numberOfChunks = Math.max(1, (message.length + chunksize - 1) / chunksize);
+		final ByteBuffer buffer = ByteBuffer
+				.allocate(message.length + numberOfChunks * CHUNK_MIN_HEADER_SIZE + CHUNK_MAX_HEADER_SIZE)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < numberOfChunks; i++) {
+			final int offset = i * chunksize;
+			final int contentLength = Math.min(chunksize, message.length - offset);
+			final boolean withMessageLength = i == 0 && numberOfChunks > 1;
+			buffer.putInt(contentLength + (withMessageLength ? CHUNK_MAX_HEADER_SIZE : CHUNK_MIN_HEADER_SIZE));
+			buffer.putInt(i == 0 ? (numberOfChunks << 1) | 1 : i << 1);
+			buffer.putLong(messageId);
+			if (withMessageLength) {
+				buffer.putLong(message.length);
+			}
+			buffer.put(message, offset, contentLength);
+		}
+		synchronized (out) {
+			if (partialDelay > 0) {
+				final int half = buffer.position() / 2;
+				out.write(buffer.array(), 0, half);
+				out.flush();
+				try {
+					TimeUnit.NANOSECONDS.sleep(partialDelay);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				out.write(buffer.array(), half, buffer.position() - half);
+			} else {
+				out.write(buffer.array(), 0, buffer.position());
+			}
+			out.flush();
+		}
+	}
+
+	private static class ThrottledInputStream extends FilterInputStream {
+
+		private final long bytesPerSecond;
+
+		private ThrottledInputStream(final InputStream in, final long bytesPerSecond) {
+			super(in);
+			this.bytesPerSecond = bytesPerSecond;
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int b = super.read();
+			throttle(1);
+			return b;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			// read at most 10ms worth of data at once
+			final int read = super.read(b, off, (int) Math.max(1, Math.min(len, bytesPerSecond / 100)));
+			throttle(read);
+			return read;
+		}
+
+		private void throttle(final int bytes) throws IOException {
+			if (bytes > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(TimeUnit.SECONDS.toNanos(bytes) / bytesPerSecond);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+			}
+		}
+	}
+
+	private static byte[] readFully(final InputStream in, final int length) throws IOException {
+		final byte[] bytes = new byte[length];
+		int read = 0;
+		while (read < length) {
+			final int r = in.read(bytes, read, length - read);
+			if (r < 0) {
+				throw new EOFException();
+			}
+			read += r;
+		}
+		return bytes;
+	}
+
+}
@@ -0,0 +1,330 @@
+/*
+ * DISCLAIMER
+ *
+ * Copyright 2017 ArangoDB GmbH, Cologne, Germany
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Copyright holder is ArangoDB GmbH, Cologne, Germany
+ */
+
+package com.arangodb.stub;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.arangodb.ArangoCollectionAsync;
+import com.arangodb.ArangoCursorAsync;
+import com.arangodb.ArangoDBAsync;
+import com.arangodb.ArangoDBException;
+import com.arangodb.entity.ArangoDBVersion;
+import com.arangodb.entity.BaseDocument;
+import com.arangodb.entity.DocumentCreateEntity;
+import com.arangodb.entity.DocumentExportEntity;
+import com.arangodb.entity.DocumentImportEntity;
+import com.arangodb.entity.MultiDocumentEntity;
+import com.arangodb.model.AqlQueryOptions;
+import com.arangodb.model.DocumentCreateOptions;
+import com.arangodb.model.DocumentExportOptions;
+import com.arangodb.velocystream.RequestType;
+
+/**
+ * @author Mark Vollmary
+ *
+ */
+public class VstStubServerTest {
+
+	private static ArangoDBAsync arangoDB(final VstStubServer server) {
+		return new ArangoDBAsync.Builder().clearHosts().host(server.getHost(), server.getPort()).build();
+	}
+
+	@Test
+	public void getVersion() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				final ArangoDBVersion version = arangoDB.getVersion().get();
+				assertThat(version.getServer(), is("arango"));
+				assertThat(version.getVersion(), is(notNullValue()));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void documents() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				final ArangoCollectionAsync collection = arangoDB.db().collection("stub");
+				final BaseDocument value = new BaseDocument();
+				value.addAttribute("a", "test");
+				final DocumentCreateEntity<BaseDocument> created = collection.insertDocument(value).get();
+				assertThat(created.getKey(), is(notNullValue()));
+				final BaseDocument document = collection.getDocument(created.getKey(), BaseDocument.class).get();
+				assertThat(document.getAttribute("a"), is("test"));
+				assertThat(collection.documentExists(created.getKey()).get(), is(true));
+				collection.deleteDocument(created.getKey()).get();
+				assertThat(collection.documentExists(created.getKey()).get(), is(false));
+				assertThat(collection.getDocument(created.getKey(), BaseDocument.class).get(), is(nullValue()));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void importDocuments() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				final Collection<BaseDocument> values = new ArrayList<>();
+				for (int i = 0; i < 10; i++) {
+					values.add(new BaseDocument(String.valueOf(i)));
+				}
+				final DocumentImportEntity result = arangoDB.db().collection("stub").importDocuments(values).get();
+				assertThat(result.getCreated(), is(10));
+				assertThat(arangoDB.db().collection("stub").documentExists("9").get(), is(true));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void query() throws Exception {
+		final List<BaseDocument> result = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			result.add(new BaseDocument(String.valueOf(i)));
+		}
+		try (VstStubServer server = new VstStubServer.Builder().query("FOR i IN stub RETURN i", result).build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				final ArangoCursorAsync<BaseDocument> cursor = arangoDB.db()
+						.query("FOR i IN stub RETURN i", null, new AqlQueryOptions().batchSize(3), BaseDocument.class)
+						.get();
+				final List<BaseDocument> documents = cursor.asListRemaining();
+				assertThat(documents.size(), is(10));
+				assertThat(documents.get(9).getKey(), is("9"));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void exportDocumentsMultiplePages() throws Exception {
+		final List<BaseDocument> result = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			result.add(new BaseDocument(String.valueOf(i)));
+		}
+		try (VstStubServer server = new VstStubServer.Builder()
+				.query("FOR doc IN @@collection FILTER doc._key > @startAfter SORT doc._key RETURN doc", result)
+				.build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				final ByteArrayOutputStream out = new ByteArrayOutputStream();
+				final DocumentExportEntity export = arangoDB.db().collection("stub")
+						.exportDocuments(Channels.newChannel(out), new DocumentExportOptions().batchSize(3)).get();
+				assertThat(export.getDocuments(), is(10L));
+				assertThat(export.getBytes(), is((long) out.size()));
+				assertThat(export.getLastKey(), is("9"));
+				final String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+				assertThat(lines.length, is(10));
+				final Set<String> distinct = new HashSet<>();
+				for (int i = 0; i < lines.length; i++) {
+					assertThat(lines[i], containsString("\"_key\":\"" + i + "\""));
+					assertThat(distinct.add(lines[i]), is(true));
+				}
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void route() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder()
+				.route(RequestType.GET, "/_api/collection/.*",
+					request -> VstStubEndpoints.error(503, 503, "unavailable"))
+				.build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				try {
+					arangoDB.db().collection("stub").getInfo().get();
+					fail();
+				} catch (final ExecutionException e) {
+					assertThat(((ArangoDBException) e.getCause()).getErrorNum(), is(503));
+				}
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void authentication() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().user("root", "secret").build()) {
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort()).user("root").password("wrong").build();
+			try {
+				arangoDB.getVersion().get();
+				fail();
+			} catch (final ArangoDBException | ExecutionException e) {
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void latency() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().latency(50, TimeUnit.MILLISECONDS).build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				arangoDB.getVersion().get();
+				final long start = System.nanoTime();
+				arangoDB.getVersion().get();
+				assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(greaterThanOrEqualTo(50L)));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void partialChunks() throws Exception {
+		final FaultProfile faults = new FaultProfile.Builder().partialChunks(1.0, 20, TimeUnit.MILLISECONDS)
+				.slowReader(100000).build();
+		try (VstStubServer server = new VstStubServer.Builder().faults(faults).build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				assertThat(arangoDB.getVersion().get().getServer(), is("arango"));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void reset() throws Exception {
+		final FaultProfile faults = new FaultProfile.Builder().reset(1.0).build();
+		try (VstStubServer server = new VstStubServer.Builder().faults(faults).build()) {
+			final ArangoDBAsync arangoDB = arangoDB(server);
+			try {
+				arangoDB.getVersion().get(10, TimeUnit.SECONDS);
+				fail();
+			} catch (final ArangoDBException | ExecutionException e) {
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void chunkedResponse() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().chunksize(64).build()) {
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort()).chunksize(64).build();
+			try {
+				final ArangoCollectionAsync collection = arangoDB.db().collection("stub");
+				final BaseDocument value = new BaseDocument("large");
+				value.addAttribute("a", new String(new char[1000]).replace('\0', 'a'));
+				collection.insertDocument(value).get();
+				final BaseDocument document = collection.getDocument("large", BaseDocument.class).get();
+				assertThat(document.getAttribute("a"), is(value.getAttribute("a")));
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void parallelDeserialization() throws Exception {
+		final ForkJoinPool pool = new ForkJoinPool(2);
+		try (VstStubServer server = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort())
+					.parallelDeserializationThreshold(2).parallelDeserializationExecutor(pool).build();
+			try {
+				final ArangoCollectionAsync collection = arangoDB.db().collection("stub");
+				final List<BaseDocument> values = new ArrayList<>();
+				for (int i = 0; i < 50; i++) {
+					final BaseDocument value = new BaseDocument();
+					value.addAttribute("i", String.valueOf(i));
+					values.add(value);
+				}
+				final MultiDocumentEntity<DocumentCreateEntity<BaseDocument>> result = collection
+						.insertDocuments(values, new DocumentCreateOptions().returnNew(true)).get();
+				assertThat(result.getDocuments().size(), is(50));
+				int i = 0;
+				for (final DocumentCreateEntity<BaseDocument> created : result.getDocuments()) {
+					assertThat(created.getNew().getAttribute("i"), is(String.valueOf(i++)));
+					final BaseDocument document = collection.getDocument(created.getKey(), BaseDocument.class).get();
+					assertThat(document.getAttribute("i"), is(created.getNew().getAttribute("i")));
+				}
+			} finally {
+				arangoDB.shutdown();
+				pool.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void parallelDeserializationRejected() throws Exception {
+		try (VstStubServer server = new VstStubServer.Builder().build()) {
+			final ArangoDBAsync arangoDB = new ArangoDBAsync.Builder().clearHosts()
+					.host(server.getHost(), server.getPort())
+					.parallelDeserializationThreshold(2).parallelDeserializationExecutor(command -> {
+						throw new RejectedExecutionException();
+					}).build();
+			try {
+				final List<BaseDocument> values = new ArrayList<>();
+				for (int i = 0; i < 10; i++) {
+					values.add(new BaseDocument());
+				}
+				try {
+					arangoDB.db().collection("stub").insertDocuments(values).get(10, TimeUnit.SECONDS);
+					fail();
+				} catch (final ExecutionException e) {
+					assertThat(e.getCause(), is(instanceOf(RejectedExecutionException.class)));
+				}
+			} finally {
+				arangoDB.shutdown();
+			}
+		}
+	}
+
+}